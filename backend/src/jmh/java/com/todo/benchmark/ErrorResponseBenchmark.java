@@ -0,0 +1,68 @@
+package com.todo.benchmark;
+
+import com.todo.dto.ErrorResponse;
+import com.todo.exception.GlobalExceptionHandler;
+import com.todo.exception.ResourceNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a missing todo into an error response, before (a plain RuntimeException with
+ * a stack trace, mapped to 400) and after (a stackless ResourceNotFoundException mapped to 404).
+ * The exception is thrown {@code depth} frames down; a request through Tomcat, the security
+ * filter chain and the service proxy is roughly 150 frames deep.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorResponseBenchmark {
+
+    @Param({"20", "150"})
+    public int depth;
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> legacyRuntimeException() {
+        try {
+            throwAt(depth, false);
+            throw new IllegalStateException("unreachable");
+        } catch (ResourceNotFoundException e) {
+            throw new IllegalStateException(e);
+        } catch (RuntimeException e) {
+            return handler.handleRuntimeException(e);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> stacklessDomainException() {
+        try {
+            throwAt(depth, true);
+            throw new IllegalStateException("unreachable");
+        } catch (ResourceNotFoundException e) {
+            return handler.handleDomainException(e);
+        }
+    }
+
+    private static void throwAt(int remaining, boolean domain) {
+        if (remaining > 0) {
+            throwAt(remaining - 1, domain);
+            return;
+        }
+        throw domain ? new ResourceNotFoundException("Todo not found") : new RuntimeException("Todo not found");
+    }
+}
@@ -0,0 +1,80 @@
+package com.todo.benchmark;
+
+import com.todo.security.JwtTokenUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuing and the three ways a bearer token gets checked: the cached path the filter takes
+ * for a known token, and a full signature verification on a cache miss.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    static final String SECRET =
+            "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437772141442A472D4A614E645267556B58703273357638792F423F4528482B4D6251";
+
+    private JwtTokenUtil jwtTokenUtil;
+
+    private JwtParser parser;
+
+    private UserDetails userDetails;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenUtil = new JwtTokenUtil();
+        ReflectionTestUtils.setField(jwtTokenUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtTokenUtil, "expiration", 3600000L);
+        ReflectionTestUtils.setField(jwtTokenUtil, "cacheMaxSize", 10000L);
+        ReflectionTestUtils.setField(jwtTokenUtil, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(jwtTokenUtil, "init");
+        parser = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8))).build();
+
+        userDetails = new User("benchmark", "password", Collections.emptyList());
+        token = jwtTokenUtil.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenUtil.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public boolean validateCachedToken() {
+        Claims claims = jwtTokenUtil.getVerifiedClaims(token);
+        return jwtTokenUtil.validateToken(claims, userDetails);
+    }
+
+    // What a cache miss costs: base64, JSON and an HMAC-SHA512 over the token
+    @Benchmark
+    public Claims verifyUncachedToken() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+}
@@ -0,0 +1,111 @@
+package com.todo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.TodoApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * The whole in-process request path, from the security filter chain (JWT check) through the
+ * controller, service and H2 to the JSON response, without the network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestPathBenchmark {
+
+    private static final int SEEDED_TODOS = 200;
+
+    private ConfigurableApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    private String authorization;
+
+    private long todoId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // A mock servlet context, as in @SpringBootTest's default environment: no server is started
+        context = new SpringApplicationBuilder(TodoApplication.class)
+                .contextFactory(type -> new GenericWebApplicationContext(new MockServletContext()))
+                // Arguments, unlike default properties, override application.properties
+                .run("--logging.level.root=WARN", "--logging.level.com.todo=WARN",
+                        "--logging.level.org.springframework.security=WARN");
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .apply(springSecurity())
+                .build();
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+
+        MvcResult registration = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"benchmark\",\"email\":\"benchmark@test.com\",\"password\":\"password123\"}"))
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(registration)).andReturn().getResponse().getContentAsString();
+        authorization = "Bearer " + objectMapper.readTree(body).get("token").asText();
+
+        for (int i = 0; i < SEEDED_TODOS; i++) {
+            String created = createTodo().getResponse().getContentAsString();
+            todoId = objectMapper.readTree(created).get("id").asLong();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult getTodoById() throws Exception {
+        return mockMvc.perform(get("/api/todos/" + todoId).header("Authorization", authorization)).andReturn();
+    }
+
+    // The 404 path scanners and stale clients hit
+    @Benchmark
+    public MvcResult getMissingTodo() throws Exception {
+        return mockMvc.perform(get("/api/todos/" + (todoId + 1_000_000)).header("Authorization", authorization)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult listTodos() throws Exception {
+        return mockMvc.perform(get("/api/todos").param("limit", "50").header("Authorization", authorization)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult createTodo() throws Exception {
+        return mockMvc.perform(post("/api/todos")
+                        .header("Authorization", authorization)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Benchmark todo\",\"priority\":\"MEDIUM\"}"))
+                .andReturn();
+    }
+}
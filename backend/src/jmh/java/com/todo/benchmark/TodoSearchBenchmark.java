@@ -0,0 +1,82 @@
+package com.todo.benchmark;
+
+import com.todo.dto.TodoResponse;
+import com.todo.service.TodoSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency against one user's built index, for exact words, short prefixes (many
+ * matching terms) and multi-word queries. The target is well under a millisecond.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TodoSearchBenchmark {
+
+    private static final String[] WORDS = {
+            "buy", "call", "review", "report", "groceries", "meeting", "plan", "planning", "trip", "book",
+            "dentist", "invoice", "renew", "passport", "water", "plants", "fix", "bug", "deploy", "release",
+            "email", "team", "budget", "quarterly", "garden", "clean", "kitchen", "schedule", "doctor", "car"
+    };
+
+    @Param({"1000", "10000"})
+    public int todos;
+
+    private TodoSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        List<TodoResponse> loaded = new ArrayList<>(todos);
+        for (long id = 1; id <= todos; id++) {
+            loaded.add(new TodoResponse(id, sentence(random, 4) + " " + id, sentence(random, 12), false, "MEDIUM",
+                    null, now, now, 0L));
+        }
+        index = new TodoSearchIndex(Duration.ofHours(1));
+        index.search(1L, "warm", 20, () -> loaded);
+    }
+
+    @Benchmark
+    public List<TodoResponse> exactWord() {
+        return index.search(1L, "passport", 20, List::of);
+    }
+
+    @Benchmark
+    public List<TodoResponse> shortPrefix() {
+        return index.search(1L, "p", 20, List::of);
+    }
+
+    @Benchmark
+    public List<TodoResponse> twoWords() {
+        return index.search(1L, "renew pass", 20, List::of);
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            sentence.append(i == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.toString();
+    }
+}
@@ -0,0 +1,54 @@
+package com.todo.service;
+
+import com.todo.dto.TodoResponse;
+import com.todo.model.Todo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping on the write path. Lives in the service package because
+ * {@link TodoService#convertToResponse} is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConvertToResponseBenchmark {
+
+    private TodoService todoService;
+
+    private Todo todo;
+
+    @Setup
+    public void setUp() {
+        todoService = new TodoService();
+        todo = new Todo();
+        todo.setId(42L);
+        todo.setTitle("Benchmark todo");
+        todo.setDescription("Converted to a TodoResponse on every write");
+        todo.setCompleted(false);
+        todo.setPriority("HIGH");
+        todo.setDueDate(LocalDateTime.now().plusDays(1));
+        todo.setCreatedAt(LocalDateTime.now());
+        todo.setUpdatedAt(LocalDateTime.now());
+        todo.setVersion(3L);
+    }
+
+    @Benchmark
+    public TodoResponse convertToResponse() {
+        return todoService.convertToResponse(todo);
+    }
+}
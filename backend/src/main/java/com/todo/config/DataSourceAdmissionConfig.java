@@ -0,0 +1,49 @@
+package com.todo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts an {@link AdmissionControlledDataSource} in front of the Hikari pool, sized to the pool
+ * and using its connection timeout. Meant for the virtual-threads profile, where request
+ * concurrency is no longer capped by the Tomcat thread pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "todo.jdbc.admission.enabled", havingValue = "true")
+public class DataSourceAdmissionConfig {
+
+    @Bean
+    public static BeanPostProcessor admissionControlledDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    return new AdmissionControlledDataSource(hikari, hikari.getMaximumPoolSize(),
+                            hikari.getConnectionTimeout());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder admissionControlMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof AdmissionControlledDataSource admission) {
+                Gauge.builder("todo.jdbc.admission.waiting", admission, AdmissionControlledDataSource::getQueueLength)
+                        .description("Threads waiting to be admitted to the connection pool")
+                        .register(registry);
+                Gauge.builder("todo.jdbc.admission.available", admission, AdmissionControlledDataSource::getAvailablePermits)
+                        .description("Connections that can be borrowed without waiting")
+                        .register(registry);
+            }
+        };
+    }
+}
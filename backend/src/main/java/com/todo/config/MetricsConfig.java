@@ -0,0 +1,114 @@
+package com.todo.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Timings and statement counts for the request path.
+ *
+ * <p>{@code @Timed} beans are timed through {@link TimedAspect}. Hibernate reports every SQL
+ * statement it prepares to a per-thread counter, and each request records how many ran on its
+ * thread as {@code todo.request.statements}, tagged with the method and the matched route, so
+ * an N+1 query shows up as a route whose count grows with the data. Requests above
+ * {@code todo.metrics.statement-warn-threshold} are also logged.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCountingCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, StatementCounter.INSTANCE);
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementMetricsFilter> statementMetricsFilter(
+            MeterRegistry meterRegistry,
+            @Value("${todo.metrics.statement-warn-threshold:50}") int warnThreshold) {
+        FilterRegistrationBean<StatementMetricsFilter> registration =
+                new FilterRegistrationBean<>(new StatementMetricsFilter(meterRegistry, warnThreshold));
+        // Right inside RequestCorrelationFilter, so statements run by the security filters are
+        // counted too and the warning carries the request id
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    static final class StatementCounter implements StatementInspector {
+
+        static final StatementCounter INSTANCE = new StatementCounter();
+
+        private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+        static long current() {
+            return COUNT.get()[0];
+        }
+
+        @Override
+        public String inspect(String sql) {
+            COUNT.get()[0]++;
+            return sql;
+        }
+    }
+
+    static final class StatementMetricsFilter extends OncePerRequestFilter {
+
+        private static final Logger log = LoggerFactory.getLogger(StatementMetricsFilter.class);
+
+        private final MeterRegistry meterRegistry;
+
+        private final int warnThreshold;
+
+        StatementMetricsFilter(MeterRegistry meterRegistry, int warnThreshold) {
+            this.meterRegistry = meterRegistry;
+            this.warnThreshold = warnThreshold;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            // The counter is never reset, so nested or earlier work on this thread is excluded
+            long before = StatementCounter.current();
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                long statements = StatementCounter.current() - before;
+                // Only the route pattern is used as a tag: raw URIs would create a meter per todo id
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+                DistributionSummary.builder("todo.request.statements")
+                        .description("SQL statements Hibernate prepared while serving a request")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri)
+                        .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100)
+                        .register(meterRegistry)
+                        .record(statements);
+                if (statements > warnThreshold) {
+                    log.warn("{} {} ran {} SQL statements", request.getMethod(), uri, statements);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.todo.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Tags everything logged while serving a request with a correlation id, as the {@code requestId}
+ * MDC key. The caller's {@code X-Request-Id} is used if it looks like an id, so a request can be
+ * followed from the proxy or client; otherwise one is generated. The id is echoed in the
+ * response, and kept on the request so async dispatches log under the same id.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestCorrelationFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    private static final String MDC_KEY = "requestId";
+
+    // Anything else could forge log lines or blow up log storage
+    private static final Pattern ACCEPTED_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private static final String ATTRIBUTE = RequestCorrelationFilter.class.getName() + ".requestId";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = (String) request.getAttribute(ATTRIBUTE);
+        if (requestId == null) {
+            String supplied = request.getHeader(REQUEST_ID_HEADER);
+            requestId = supplied != null && ACCEPTED_ID.matcher(supplied).matches()
+                    ? supplied : UUID.randomUUID().toString();
+            request.setAttribute(ATTRIBUTE, requestId);
+            response.setHeader(REQUEST_ID_HEADER, requestId);
+        }
+        MDC.put(MDC_KEY, requestId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_KEY);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+}
@@ -0,0 +1,76 @@
+package com.todo.config;
+
+import com.todo.security.TodoUserPrincipal;
+import com.todo.service.WriteBehindTodoStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * With write-behind on, holds todo requests until the caller's acknowledged creates and updates
+ * are in the database, so reads and synchronous writes never miss them. The wait happens before
+ * the controller runs, outside any transaction, so waiting requests hold no connection the
+ * applier needs. Creates and updates go through the journal themselves and are not held.
+ *
+ * <p>Synchronous writes (deletes, batches, imports) also keep the caller's journaled writes out
+ * until the request completes, after its transaction has committed; see
+ * {@link WriteBehindTodoStore#beginDirectWrite}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "todo.write-behind.enabled", havingValue = "true")
+public class WriteBehindConfig implements WebMvcConfigurer {
+
+    private static final String DIRECT_WRITE_USER = WriteBehindConfig.class.getName() + ".directWriteUser";
+
+    @Autowired
+    private WriteBehindTodoStore writeBehindStore;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                if (isJournaled(request) || authentication == null
+                        || !(authentication.getPrincipal() instanceof TodoUserPrincipal principal)) {
+                    return true;
+                }
+                if (isRead(request)) {
+                    writeBehindStore.awaitApplied(principal.getId());
+                } else {
+                    writeBehindStore.beginDirectWrite(principal.getId());
+                    request.setAttribute(DIRECT_WRITE_USER, principal.getId());
+                }
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                        Exception ex) {
+                if (request.getAttribute(DIRECT_WRITE_USER) instanceof Long userId) {
+                    request.removeAttribute(DIRECT_WRITE_USER);
+                    writeBehindStore.endDirectWrite(userId);
+                }
+            }
+        }).addPathPatterns("/api/todos", "/api/todos/**");
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+
+    // POST /api/todos, and PUT and PATCH /api/todos/{id}
+    private static boolean isJournaled(HttpServletRequest request) {
+        String method = request.getMethod();
+        return "PUT".equals(method) || "PATCH".equals(method)
+                || ("POST".equals(method) && request.getRequestURI().equals(request.getContextPath() + "/api/todos"));
+    }
+}
@@ -1,18 +1,56 @@
 package com.todo.controller;
 
+import com.todo.dto.TodoBatchRequest;
+import com.todo.dto.TodoBatchResponse;
+import com.todo.dto.TodoCursor;
+import com.todo.dto.TodoDeleteResponse;
+import com.todo.dto.TodoImportResponse;
+import com.todo.dto.TodoPage;
+import com.todo.dto.TodoPatch;
+import com.todo.dto.TodoQuery;
 import com.todo.dto.TodoRequest;
 import com.todo.dto.TodoResponse;
+import com.todo.dto.TodoSortField;
+import com.todo.dto.TodoStats;
+import com.todo.dto.TodoTransferFormat;
+import com.todo.exception.PreconditionFailedException;
+import com.todo.security.JwtAuthenticationFilter;
+import com.todo.service.TodoExport;
 import com.todo.service.TodoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping("/api/todos")
@@ -20,23 +58,150 @@ import java.util.List;
 @Tag(name = "Todos", description = "Todo management endpoints")
 public class TodoController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    // Clients may cache but must revalidate with If-None-Match
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     @Autowired
     private TodoService todoService;
 
+    // Longer than the servlet container's 30-second async default, which only suits short work
+    @Value("${todo.export.timeout:30m}")
+    private Duration exportTimeout;
+
+    /**
+     * Todos are served as JSON, CBOR or Smile depending on Accept, all under the same ETag, so
+     * caches must keep the formats apart. Added before every handler, so 304s carry it too.
+     */
+    @ModelAttribute
+    void varyByAccept(HttpServletResponse response) {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+
     @GetMapping
-    @Operation(summary = "Get all todos for current user")
+    @Operation(summary = "Get a page of todos for current user",
+            description = "Keyset-paginated. Pass the X-Next-Cursor response header back as 'cursor' to read the next page.")
     public ResponseEntity<List<TodoResponse>> getAllTodos(
-            @RequestParam(required = false) Boolean completed) {
-        if (completed != null) {
-            return ResponseEntity.ok(todoService.getTodosByStatus(completed));
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) List<String> priority,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueTo,
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            ServletWebRequest webRequest) {
+        // Decided from the list version alone: a 304 costs one primary-key read, not the list query
+        long listVersion = todoService.getListVersion();
+        String eTag = listETag(listVersion, webRequest);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        TodoQuery query = new TodoQuery();
+        query.setCompleted(completed);
+        query.setPriorities(priority);
+        query.setDueFrom(dueFrom);
+        query.setDueTo(dueTo);
+        query.setSort(TodoSortField.fromParameter(sort));
+        query.setDescending("desc".equalsIgnoreCase(direction));
+        query.setLimit(limit);
+        if (cursor != null) {
+            query.setAfter(TodoCursor.decode(cursor));
+        }
+
+        // Same version as the ETag, so the cache key and the ETag always agree
+        TodoPage page = todoService.getTodos(query, listVersion);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE);
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
         }
-        return ResponseEntity.ok(todoService.getAllTodos());
+        return response.body(page.getItems());
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search the current user's todos",
+            description = "Ranked full-text search over title and description. Every word must match, "
+                    + "either exactly or as the start of a word.")
+    public ResponseEntity<List<TodoResponse>> searchTodos(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(todoService.searchTodos(q, limit));
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Get counts of the current user's todos",
+            description = "Total, completed, active and overdue todos, and todos per priority.")
+    public ResponseEntity<TodoStats> getStats() {
+        return ResponseEntity.ok(todoService.getStats());
+    }
+
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream changes to the current user's todos",
+            description = "Server-sent events named created, updated, deleted or reset. Reconnect with "
+                    + "Last-Event-ID (or lastEventId) to resume; a reset event means the list must be re-read. "
+                    + "The stream ends when the access token expires or is revoked.")
+    public SseEmitter streamChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(required = false) String lastEventId,
+            @RequestAttribute(name = JwtAuthenticationFilter.TOKEN_EXPIRATION_ATTRIBUTE, required = false)
+            Date tokenExpiration) {
+        return todoService.subscribeToChanges(lastEventIdHeader != null ? lastEventIdHeader : lastEventId,
+                tokenExpiration);
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Download all of the current user's todos",
+            description = "Streamed as NDJSON (format=ndjson, the default) or CSV (format=csv), in id order. "
+                    + "Returns 503 while the maximum number of exports is already running.")
+    public ResponseEntity<StreamingResponseBody> exportTodos(@RequestParam(defaultValue = "ndjson") String format,
+                                                             HttpServletRequest request) {
+        TodoTransferFormat transferFormat = TodoTransferFormat.fromParameter(format);
+        TodoExport export = todoService.exportTodos(transferFormat);
+        // Applied when the response is handed to the async executor, to this request only
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(TodoExport.class.getName(),
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest webRequest, Callable<T> task) {
+                        ((AsyncWebRequest) webRequest).setTimeout(exportTimeout.toMillis());
+                    }
+
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                        export.abandon();
+                    }
+                });
+        return ResponseEntity.ok()
+                .contentType(transferFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("todos." + transferFormat.getExtension()).build().toString())
+                .body(export);
+    }
+
+    @PostMapping(path = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    @Operation(summary = "Create todos from an NDJSON or CSV upload",
+            description = "Accepts the export formats; ids, timestamps and versions in the upload are ignored. "
+                    + "Invalid or overlong records are skipped and reported; uploads over the size limit are "
+                    + "rejected with 413.")
+    public ResponseEntity<TodoImportResponse> importTodos(HttpServletRequest request) throws IOException {
+        TodoTransferFormat format = TodoTransferFormat.fromMediaType(MediaType.parseMediaType(request.getContentType()));
+        return ResponseEntity.ok(todoService.importTodos(request.getInputStream(), request.getContentLengthLong(),
+                format));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get todo by ID")
-    public ResponseEntity<TodoResponse> getTodoById(@PathVariable Long id) {
-        return ResponseEntity.ok(todoService.getTodoById(id));
+    public ResponseEntity<TodoResponse> getTodoById(@PathVariable Long id, WebRequest webRequest) {
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && webRequest.checkNotModified(itemETag(id, todoService.getTodoVersion(id)))) {
+            return null;
+        }
+        TodoResponse todo = todoService.getTodoById(id);
+        return ResponseEntity.ok()
+                .eTag(itemETag(todo.getId(), todo.getVersion()))
+                .cacheControl(REVALIDATE)
+                .body(todo);
     }
 
     @PostMapping
@@ -46,18 +211,81 @@ public class TodoController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Apply create, update, complete and delete operations in one transaction",
+            description = "Returns one result per operation; failed items do not roll back the others.")
+    public ResponseEntity<TodoBatchResponse> applyBatch(@Valid @RequestBody TodoBatchRequest request) {
+        return ResponseEntity.ok(todoService.applyBatch(request.getOperations()));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update an existing todo")
     public ResponseEntity<TodoResponse> updateTodo(
             @PathVariable Long id,
-            @Valid @RequestBody TodoRequest request) {
-        return ResponseEntity.ok(todoService.updateTodo(id, request));
+            @Valid @RequestBody TodoRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TodoResponse todo = todoService.updateTodo(id, request, expectedVersion(id, ifMatch));
+        return ResponseEntity.ok().eTag(itemETag(todo.getId(), todo.getVersion())).body(todo);
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(summary = "Change some fields of a todo",
+            description = "JSON merge patch: only the fields present in the body are changed, e.g. "
+                    + "{\"completed\": true}, and description or dueDate set to null are cleared.")
+    public ResponseEntity<TodoResponse> patchTodo(
+            @PathVariable Long id,
+            @Valid @RequestBody TodoPatch patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TodoResponse todo = todoService.patchTodo(id, patch, expectedVersion(id, ifMatch));
+        return ResponseEntity.ok().eTag(itemETag(todo.getId(), todo.getVersion())).body(todo);
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a todo")
-    public ResponseEntity<Void> deleteTodo(@PathVariable Long id) {
-        todoService.deleteTodo(id);
+    public ResponseEntity<Void> deleteTodo(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        todoService.deleteTodo(id, expectedVersion(id, ifMatch));
         return ResponseEntity.noContent().build();
     }
+
+    @DeleteMapping
+    @Operation(summary = "Delete all completed (or active) todos of the current user",
+            description = "DELETE /api/todos?completed=true clears completed todos.")
+    public ResponseEntity<TodoDeleteResponse> deleteTodos(@RequestParam Boolean completed) {
+        return ResponseEntity.ok(new TodoDeleteResponse(todoService.deleteTodosByStatus(completed)));
+    }
+
+    // A list ETag is the user's list version plus the query, since each page and filter is its own representation
+    // Weak: the tag names the list, not one encoding of it, and Tomcat refuses to gzip responses
+    // with a strong ETag. Item ETags stay strong for If-Match; items are too small to compress
+    private static String listETag(long listVersion, ServletWebRequest webRequest) {
+        String query = String.valueOf(webRequest.getRequest().getQueryString());
+        return "W/\"" + listVersion + "-" + DigestUtils.md5DigestAsHex(query.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private static String itemETag(Long id, Long version) {
+        return "\"" + id + "." + version + "\"";
+    }
+
+    /**
+     * Extracts the todo version from an If-Match header. Returns {@code null} when the write is
+     * unconditional ({@code *} or no header).
+     */
+    private static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        // If-Match uses strong comparison, so weak validators never match
+        String tag = ifMatch.trim();
+        String prefix = "\"" + id + ".";
+        if (!tag.startsWith(prefix) || !tag.endsWith("\"") || tag.length() <= prefix.length() + 1) {
+            throw new PreconditionFailedException("If-Match does not identify a version of todo " + id);
+        }
+        try {
+            return Long.valueOf(tag.substring(prefix.length(), tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match does not identify a version of todo " + id);
+        }
+    }
 }
@@ -8,11 +8,16 @@ import lombok.Data;
 public class AuthResponse {
     private String token;
     private String type = "Bearer";
+    // Seconds until the access token expires
+    private long expiresIn;
+    private String refreshToken;
     private String username;
     private String email;
 
-    public AuthResponse(String token, String username, String email) {
+    public AuthResponse(String token, long expiresIn, String refreshToken, String username, String email) {
         this.token = token;
+        this.expiresIn = expiresIn;
+        this.refreshToken = refreshToken;
         this.username = username;
         this.email = email;
     }
@@ -0,0 +1,24 @@
+package com.todo.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * One item of a batch request. {@code id} is required for UPDATE, COMPLETE and DELETE;
+ * {@code todo} is required for CREATE and UPDATE.
+ */
+@Data
+public class TodoBatchOperation {
+
+    public enum Type {
+        CREATE, UPDATE, COMPLETE, DELETE
+    }
+
+    @NotNull(message = "Operation type is required")
+    private Type op;
+
+    private Long id;
+
+    // Validated per item by TodoService so one bad item does not reject the whole batch
+    private TodoRequest todo;
+}
@@ -0,0 +1,18 @@
+package com.todo.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TodoBatchRequest {
+
+    public static final int MAX_OPERATIONS = 1000;
+
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = MAX_OPERATIONS, message = "A batch must not exceed " + MAX_OPERATIONS + " operations")
+    private List<@Valid TodoBatchOperation> operations;
+}
@@ -0,0 +1,16 @@
+package com.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoBatchResponse {
+    private int succeeded;
+    private int failed;
+    private List<TodoBatchResult> results;
+}
@@ -0,0 +1,21 @@
+package com.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one batch operation. {@code status} uses the HTTP status the equivalent
+ * single-item call would have returned.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoBatchResult {
+    private int index;
+    private TodoBatchOperation.Type op;
+    private int status;
+    private Long id;
+    private TodoResponse todo;
+    private String error;
+}
@@ -0,0 +1,8 @@
+package com.todo.dto;
+
+/**
+ * One group of the stats reconciliation aggregate: todos of a user with a given priority and
+ * completion state, and how many of them are overdue.
+ */
+public record TodoCountRow(Long userId, String priority, Boolean completed, Long todos, Long overdue) {
+}
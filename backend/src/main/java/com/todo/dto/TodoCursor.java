@@ -0,0 +1,37 @@
+package com.todo.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset position: the sort value and id of the last todo on a page. Encoded as an opaque,
+ * URL-safe token so clients just echo it back.
+ */
+public record TodoCursor(TodoSortField sort, boolean descending, Object value, Long id) {
+
+    public String encode() {
+        String raw = sort.name() + '|' + (descending ? 'D' : 'A') + '|' + (value == null ? "" : value) + '|' + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TodoCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            TodoSortField sort = TodoSortField.valueOf(parts[0]);
+            boolean descending = "D".equals(parts[1]);
+            Object value = parts[2].isEmpty() ? null : parseValue(sort, parts[2]);
+            return new TodoCursor(sort, descending, value, Long.valueOf(parts[3]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private static Object parseValue(TodoSortField sort, String value) {
+        return sort == TodoSortField.PRIORITY ? Integer.valueOf(value) : LocalDateTime.parse(value);
+    }
+}
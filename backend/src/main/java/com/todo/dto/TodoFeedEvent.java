@@ -0,0 +1,20 @@
+package com.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Payload of one change-feed event. {@code type} is {@code created}, {@code updated},
+ * {@code deleted} or {@code reset}; a reset means events were missed and the client should
+ * re-read its list.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoFeedEvent {
+    private String id;
+    private String type;
+    private Long todoId;
+    private TodoResponse todo;
+}
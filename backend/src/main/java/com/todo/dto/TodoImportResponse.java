@@ -0,0 +1,17 @@
+package com.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoImportResponse {
+    private long imported;
+    private long failed;
+    // The first failures, each prefixed with its record number
+    private List<String> errors;
+}
@@ -0,0 +1,13 @@
+package com.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class TodoPage {
+    private List<TodoResponse> items;
+    private String nextCursor;
+}
@@ -0,0 +1,82 @@
+package com.todo.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Partial update of a todo with JSON merge patch semantics (RFC 7396): only the fields present
+ * in the body are changed, and a field set to {@code null} is cleared. Jackson calls a setter
+ * only for fields in the body, so the setters record which ones were present.
+ */
+@Data
+public class TodoPatch {
+
+    @Pattern(regexp = "(?s).*\\S.*", message = "Title must not be blank")
+    @Size(max = 255, message = "Title must not exceed 255 characters")
+    private String title;
+
+    @Size(max = 1000, message = "Description must not exceed 1000 characters")
+    private String description;
+
+    private Boolean completed;
+
+    private String priority; // LOW, MEDIUM, HIGH
+
+    private LocalDateTime dueDate;
+
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    private final Set<String> present = new HashSet<>();
+
+    public void setTitle(String title) {
+        this.title = title;
+        present.add("title");
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+        present.add("description");
+    }
+
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+        present.add("completed");
+    }
+
+    public void setPriority(String priority) {
+        this.priority = priority;
+        present.add("priority");
+    }
+
+    public void setDueDate(LocalDateTime dueDate) {
+        this.dueDate = dueDate;
+        present.add("dueDate");
+    }
+
+    /**
+     * Whether the body named {@code field}, possibly as {@code null}.
+     */
+    public boolean has(String field) {
+        return present.contains(field);
+    }
+
+    public boolean isEmpty() {
+        return present.isEmpty();
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Title, completed and priority cannot be cleared")
+    public boolean isRequiredFieldsKept() {
+        return (!has("title") || title != null) && (!has("completed") || completed != null)
+                && (!has("priority") || priority != null);
+    }
+}
@@ -0,0 +1,30 @@
+package com.todo.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Filters, sort order and keyset position for one page of the todo list.
+ */
+@Data
+public class TodoQuery {
+
+    private Boolean completed;
+
+    private List<String> priorities;
+
+    private LocalDateTime dueFrom;
+
+    private LocalDateTime dueTo;
+
+    private TodoSortField sort = TodoSortField.CREATED_AT;
+
+    private boolean descending;
+
+    // Null means the configured default page size
+    private Integer limit;
+
+    private TodoCursor after;
+}
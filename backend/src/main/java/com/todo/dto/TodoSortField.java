@@ -0,0 +1,39 @@
+package com.todo.dto;
+
+/**
+ * Sort keys accepted by the todo list endpoint. Each maps to an indexed column so that
+ * keyset pages can be read straight off {@code todos(user_id, <column>, id)}.
+ */
+public enum TodoSortField {
+    CREATED_AT("createdAt", false),
+    UPDATED_AT("updatedAt", false),
+    DUE_DATE("dueDate", true),
+    PRIORITY("priorityRank", false);
+
+    private final String property;
+    private final boolean nullable;
+
+    TodoSortField(String property, boolean nullable) {
+        this.property = property;
+        this.nullable = nullable;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    public static TodoSortField fromParameter(String value) {
+        return switch (value) {
+            case "createdAt" -> CREATED_AT;
+            case "updatedAt" -> UPDATED_AT;
+            case "dueDate" -> DUE_DATE;
+            case "priority" -> PRIORITY;
+            default -> throw new IllegalArgumentException(
+                    "Unsupported sort field: " + value + " (expected createdAt, updatedAt, dueDate or priority)");
+        };
+    }
+}
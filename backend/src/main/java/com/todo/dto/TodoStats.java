@@ -0,0 +1,22 @@
+package com.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Counts over the current user's todos. {@code overdue} are the active todos whose due date has
+ * passed; {@code byPriority} always has LOW, MEDIUM and HIGH.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoStats {
+    private long total;
+    private long completed;
+    private long active;
+    private long overdue;
+    private Map<String, Long> byPriority;
+}
@@ -0,0 +1,46 @@
+package com.todo.dto;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Formats accepted by the todo export and import endpoints: one JSON document per line, or
+ * CSV with a header row.
+ */
+public enum TodoTransferFormat {
+    NDJSON("ndjson", new MediaType("application", "x-ndjson")),
+    CSV("csv", new MediaType("text", "csv"));
+
+    private final String extension;
+    private final MediaType mediaType;
+
+    TodoTransferFormat(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public static TodoTransferFormat fromParameter(String value) {
+        return switch (value) {
+            case "ndjson" -> NDJSON;
+            case "csv" -> CSV;
+            default -> throw new IllegalArgumentException("Unsupported format: " + value + " (expected ndjson or csv)");
+        };
+    }
+
+    public static TodoTransferFormat fromMediaType(MediaType contentType) {
+        for (TodoTransferFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(contentType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported content type: " + contentType
+                + " (expected application/x-ndjson or text/csv)");
+    }
+}
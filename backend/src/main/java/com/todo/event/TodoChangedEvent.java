@@ -0,0 +1,29 @@
+package com.todo.event;
+
+import com.todo.dto.TodoResponse;
+
+/**
+ * Published by {@code TodoService} for every todo mutation. Listeners that keep derived state
+ * (versions, feeds, indexes) should react after commit, with
+ * {@code @TransactionalEventListener(phase = AFTER_COMMIT)}.
+ *
+ * @param todo the todo after the change; {@code null} for deletes
+ */
+public record TodoChangedEvent(Long userId, Type type, Long todoId, TodoResponse todo) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static TodoChangedEvent created(Long userId, TodoResponse todo) {
+        return new TodoChangedEvent(userId, Type.CREATED, todo.getId(), todo);
+    }
+
+    public static TodoChangedEvent updated(Long userId, TodoResponse todo) {
+        return new TodoChangedEvent(userId, Type.UPDATED, todo.getId(), todo);
+    }
+
+    public static TodoChangedEvent deleted(Long userId, Long todoId) {
+        return new TodoChangedEvent(userId, Type.DELETED, todoId, null);
+    }
+}
@@ -0,0 +1,9 @@
+package com.todo.event;
+
+/**
+ * Published by {@code TokenRevocations} once some of a user's access tokens stop being accepted
+ * (token version bumped, user disabled or removed), so anything holding a connection opened
+ * with one of them can close it.
+ */
+public record TokensRevokedEvent(Long userId) {
+}
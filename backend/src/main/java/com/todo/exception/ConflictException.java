@@ -0,0 +1,18 @@
+package com.todo.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when a request conflicts with existing state, such as a username that is taken.
+ */
+public class ConflictException extends DomainException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.CONFLICT;
+    }
+}
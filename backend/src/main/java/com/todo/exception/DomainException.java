@@ -0,0 +1,19 @@
+package com.todo.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Base class for expected request failures (missing todo, duplicate username, stale version).
+ *
+ * <p>These are part of normal traffic, often in bulk from scanners and stale clients, so they
+ * skip stack trace capture, which is most of the cost of a deep-stack exception. They carry the
+ * HTTP status they map to.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+
+    public abstract HttpStatus getStatus();
+}
@@ -0,0 +1,18 @@
+package com.todo.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when a refresh token is unknown, expired, already used or belongs to a disabled user.
+ */
+public class InvalidTokenException extends DomainException {
+
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.UNAUTHORIZED;
+    }
+}
@@ -0,0 +1,18 @@
+package com.todo.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when an upload is larger than the endpoint accepts.
+ */
+public class PayloadTooLargeException extends DomainException {
+
+    public PayloadTooLargeException(String message) {
+        super(message);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.PAYLOAD_TOO_LARGE;
+    }
+}
@@ -0,0 +1,18 @@
+package com.todo.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when an {@code If-Match} precondition does not hold for the current todo version.
+ */
+public class PreconditionFailedException extends DomainException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.PRECONDITION_FAILED;
+    }
+}
@@ -0,0 +1,19 @@
+package com.todo.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when a caller has used up its request allowance. Mapped to
+ * {@code 429 Too Many Requests} with a {@code Retry-After} header.
+ */
+public class RateLimitedException extends ServiceBusyException {
+
+    public RateLimitedException(String message, long retryAfterSeconds) {
+        super(message, retryAfterSeconds);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.TOO_MANY_REQUESTS;
+    }
+}
@@ -0,0 +1,28 @@
+package com.todo.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Last journal sequence applied to the database, per journal. Written in the same transaction
+ * as the applied records, so a restart replays exactly the records after it.
+ */
+@Entity
+@Table(name = "journal_checkpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalCheckpoint {
+
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    @Column(nullable = false)
+    private Long appliedSeq;
+}
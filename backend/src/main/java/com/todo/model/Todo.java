@@ -11,15 +11,25 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "todos")
+@Table(name = "todos", indexes = {
+        // Keyset pagination: one index per sort key, with id as the tie-breaker
+        @Index(name = "idx_todos_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_todos_user_updated", columnList = "user_id, updated_at, id"),
+        @Index(name = "idx_todos_user_due", columnList = "user_id, due_date, id"),
+        @Index(name = "idx_todos_user_priority", columnList = "user_id, priority_rank, id"),
+        @Index(name = "idx_todos_user_completed", columnList = "user_id, completed")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
 public class Todo {
 
+    // Pooled sequence rather than IDENTITY so Hibernate can batch inserts:
+    // ids are handed out from memory, 50 per sequence call
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todos_seq")
+    @SequenceGenerator(name = "todos_seq", sequenceName = "todos_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 255)
@@ -34,9 +44,17 @@ public class Todo {
     @Column(nullable = false)
     private String priority = "MEDIUM"; // LOW, MEDIUM, HIGH
 
+    // Sortable form of priority (LOW=0, MEDIUM=1, HIGH=2), kept in sync on every write
+    @Column(nullable = false)
+    private Integer priorityRank = 1;
+
     @Column
     private LocalDateTime dueDate;
 
+    // Optimistic lock; also the todo's ETag and If-Match value
+    @Version
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -48,4 +66,17 @@ public class Todo {
     @LastModifiedDate
     @Column(nullable = false)
     private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    void syncPriorityRank() {
+        priorityRank = rankOf(priority);
+    }
+
+    public static int rankOf(String priority) {
+        if ("HIGH".equals(priority)) {
+            return 2;
+        }
+        return "LOW".equals(priority) ? 0 : 1;
+    }
 }
@@ -0,0 +1,48 @@
+package com.todo.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One committed todo change, written in the transaction that makes it. Ids follow commit order
+ * closely enough for every instance's change feed to read new rows by id; rows older than the
+ * feed's retention are deleted. Written and read with JDBC by {@code TodoChangeLog}.
+ */
+@Entity
+@Table(name = "todo_changes", indexes = {
+        @Index(name = "idx_todo_changes_user", columnList = "user_id, id"),
+        @Index(name = "idx_todo_changes_created", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+public class TodoChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 10)
+    private String type;
+
+    @Column(name = "todo_id", nullable = false)
+    private Long todoId;
+
+    // The todo after the change as JSON; null for deletes
+    @Column(length = 8000)
+    private String todo;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
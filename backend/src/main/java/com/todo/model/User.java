@@ -6,23 +6,30 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import com.todo.security.TokenRevocationListener;
+import com.todo.security.UserPrincipalCacheInvalidator;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        // Login and the JWT principal lookup both go by username
+        @Index(name = "idx_users_username", columnList = "username", unique = true),
+        // TokenRevocations polls for recently updated users
+        @Index(name = "idx_users_updated", columnList = "updatedAt")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, UserPrincipalCacheInvalidator.class, TokenRevocationListener.class})
 public class User {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true, length = 100)
+    @Column(nullable = false, length = 100)
     private String username;
 
     @Column(nullable = false, unique = true, length = 100)
@@ -37,6 +44,15 @@ public class User {
     @Column(nullable = false)
     private Boolean enabled = true;
 
+    // Access tokens carry the version they were issued under; bumping it revokes all of them
+    @Column(nullable = false)
+    private Long tokenVersion = 0L;
+
+    // Bumped with bulk updates by TodoChangeTracker; never written from the entity, so a stale
+    // loaded value cannot overwrite it
+    @Column(nullable = false, updatable = false)
+    private Long listVersion = 0L;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -1,20 +1,81 @@
 package com.todo.repository;
 
+import com.todo.dto.TodoCountRow;
+import com.todo.dto.TodoResponse;
 import com.todo.model.Todo;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TodoRepository extends JpaRepository<Todo, Long> {
+public interface TodoRepository extends JpaRepository<Todo, Long>, TodoRepositoryCustom {
     
-    List<Todo> findByUserId(Long userId);
+    /**
+     * Read-side projection: selects straight into {@link TodoResponse}, so list reads never
+     * hydrate managed {@link Todo} entities or their {@code User} proxies.
+     */
+    String RESPONSE_PROJECTION = "select new com.todo.dto.TodoResponse(t.id, t.title, t.description, "
+            + "t.completed, t.priority, t.dueDate, t.createdAt, t.updatedAt, t.version) from Todo t ";
     
-    List<Todo> findByUserIdAndCompleted(Long userId, Boolean completed);
+    @Query(RESPONSE_PROJECTION + "where t.user.id = :userId")
+    List<TodoResponse> findResponsesByUserId(Long userId);
+    
+    /**
+     * All of a user's todos in id order, read through a cursor {@code fetch size} rows at a time.
+     * Projections are not held by the persistence context, so memory stays flat however many
+     * rows there are. Must be consumed inside a transaction and closed.
+     */
+    @Query(RESPONSE_PROJECTION + "where t.user.id = :userId order by t.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<TodoResponse> streamResponsesByUserId(Long userId);
+    
+    @Query(RESPONSE_PROJECTION + "where t.id = :id and t.user.id = :userId")
+    Optional<TodoResponse> findResponseByIdAndUserId(Long id, Long userId);
     
     Optional<Todo> findByIdAndUserId(Long id, Long userId);
     
-    void deleteByIdAndUserId(Long id, Long userId);
+    @Query("select t.version from Todo t where t.id = :id and t.user.id = :userId")
+    Optional<Long> findVersionByIdAndUserId(Long id, Long userId);
+    
+    List<Todo> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
+    
+    /**
+     * Per-user counts by priority and completion state, used to check the in-memory stats.
+     */
+    @Query("select new com.todo.dto.TodoCountRow(t.user.id, t.priority, t.completed, count(t), "
+            + "sum(case when t.completed = false and t.dueDate < :now then 1 else 0 end)) "
+            + "from Todo t where t.user.id in :userIds group by t.user.id, t.priority, t.completed")
+    List<TodoCountRow> countByUserIds(Collection<Long> userIds, LocalDateTime now);
+    
+    // Locks the rows, so they cannot change status or be deleted before the caller deletes them
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t.id from Todo t where t.user.id = :userId and t.completed = :completed")
+    List<Long> findIdsByUserIdAndCompleted(Long userId, Boolean completed);
+    
+    // Bulk deletes: one statement each, no entity loaded first. The row count tells whether
+    // anything matched
+    
+    @Modifying
+    @Query("delete from Todo t where t.id = :id and t.user.id = :userId")
+    int deleteByIdAndUserId(Long id, Long userId);
+    
+    @Modifying
+    @Query("delete from Todo t where t.id = :id and t.user.id = :userId and t.version = :version")
+    int deleteByIdAndUserIdAndVersion(Long id, Long userId, Long version);
+    
+    @Modifying
+    @Query("delete from Todo t where t.user.id = :userId and t.id in :ids")
+    int deleteByUserIdAndIdIn(Long userId, Collection<Long> ids);
 }
@@ -0,0 +1,27 @@
+package com.todo.repository;
+
+import com.todo.dto.TodoQuery;
+import com.todo.dto.TodoResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public interface TodoRepositoryCustom {
+
+    /**
+     * Reads up to {@code limit} todos of a user that match the query's filters, ordered by its
+     * sort key and id, starting strictly after the query's cursor.
+     */
+    List<TodoResponse> findPage(Long userId, TodoQuery query, int limit);
+
+    /**
+     * Sets the given {@code Todo} properties of one of a user's todos, and bumps its version and
+     * {@code updatedAt}, in a single UPDATE. A null value clears the property.
+     *
+     * @param expectedVersion the version the todo must still have, or {@code null} for any
+     * @return the number of rows updated: 0 if the todo does not exist, belongs to another
+     *         user or has a different version
+     */
+    int updateFields(Long id, Long userId, Map<String, Object> fields, Long expectedVersion, LocalDateTime now);
+}
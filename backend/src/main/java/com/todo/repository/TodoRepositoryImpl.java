@@ -0,0 +1,116 @@
+package com.todo.repository;
+
+import com.todo.dto.TodoCursor;
+import com.todo.dto.TodoQuery;
+import com.todo.dto.TodoResponse;
+import com.todo.model.Todo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset pagination over {@code todos}. The query is built so that each page is a range scan
+ * on {@code (user_id, <sort column>, id)}, independent of how deep into the list it is. Rows are
+ * projected straight into {@link TodoResponse}.
+ *
+ * <p>Updates are bulk JPQL statements naming only the changed columns, so no entity is loaded,
+ * merged or dirty-checked. They bypass entity listeners, so the version, {@code updatedAt} and
+ * {@code priorityRank} are maintained here.
+ */
+public class TodoRepositoryImpl implements TodoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TodoResponse> findPage(Long userId, TodoQuery query, int limit) {
+        String column = "t." + query.getSort().getProperty();
+        String direction = query.isDescending() ? "desc" : "asc";
+        String comparator = query.isDescending() ? "<" : ">";
+
+        StringBuilder jpql = new StringBuilder(TodoRepository.RESPONSE_PROJECTION).append("where t.user.id = :userId");
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("userId", userId);
+
+        if (query.getCompleted() != null) {
+            jpql.append(" and t.completed = :completed");
+            parameters.put("completed", query.getCompleted());
+        }
+        if (query.getPriorities() != null && !query.getPriorities().isEmpty()) {
+            jpql.append(" and t.priority in :priorities");
+            parameters.put("priorities", query.getPriorities());
+        }
+        if (query.getDueFrom() != null) {
+            jpql.append(" and t.dueDate >= :dueFrom");
+            parameters.put("dueFrom", query.getDueFrom());
+        }
+        if (query.getDueTo() != null) {
+            jpql.append(" and t.dueDate <= :dueTo");
+            parameters.put("dueTo", query.getDueTo());
+        }
+
+        TodoCursor after = query.getAfter();
+        if (after != null) {
+            parameters.put("afterId", after.id());
+            if (after.value() == null) {
+                // Only reachable on nullable keys, whose nulls sort last: continue within the null tail
+                jpql.append(" and ").append(column).append(" is null and t.id ").append(comparator).append(" :afterId");
+            } else {
+                jpql.append(" and (").append(column).append(' ').append(comparator).append(" :afterValue")
+                        .append(" or (").append(column).append(" = :afterValue and t.id ")
+                        .append(comparator).append(" :afterId)");
+                if (query.getSort().isNullable()) {
+                    jpql.append(" or ").append(column).append(" is null");
+                }
+                jpql.append(')');
+                parameters.put("afterValue", after.value());
+            }
+        }
+
+        jpql.append(" order by ").append(column).append(' ').append(direction);
+        if (query.getSort().isNullable()) {
+            jpql.append(" nulls last");
+        }
+        jpql.append(", t.id ").append(direction);
+
+        TypedQuery<TodoResponse> typedQuery = entityManager.createQuery(jpql.toString(), TodoResponse.class);
+        parameters.forEach(typedQuery::setParameter);
+        return typedQuery.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public int updateFields(Long id, Long userId, Map<String, Object> fields, Long expectedVersion, LocalDateTime now) {
+        StringBuilder jpql = new StringBuilder("update Todo t set ");
+        Map<String, Object> parameters = new HashMap<>();
+        fields.forEach((property, value) -> {
+            if (value == null) {
+                jpql.append("t.").append(property).append(" = null, ");
+            } else {
+                jpql.append("t.").append(property).append(" = :").append(property).append(", ");
+                parameters.put(property, value);
+            }
+        });
+        if (fields.containsKey("priority")) {
+            jpql.append("t.priorityRank = :priorityRank, ");
+            parameters.put("priorityRank", Todo.rankOf((String) fields.get("priority")));
+        }
+        jpql.append("t.version = t.version + 1, t.updatedAt = :now where t.id = :id and t.user.id = :userId");
+        parameters.put("now", now);
+        parameters.put("id", id);
+        parameters.put("userId", userId);
+        if (expectedVersion != null) {
+            jpql.append(" and t.version = :expectedVersion");
+            parameters.put("expectedVersion", expectedVersion);
+        }
+
+        Query update = entityManager.createQuery(jpql.toString());
+        parameters.forEach(update::setParameter);
+        return update.executeUpdate();
+    }
+}
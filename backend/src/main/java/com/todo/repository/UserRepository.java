@@ -2,8 +2,13 @@ package com.todo.repository;
 
 import com.todo.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,4 +21,19 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Boolean existsByUsername(String username);
     
     Boolean existsByEmail(String email);
+    
+    /**
+     * Users whose access tokens are, at least partly, revoked.
+     */
+    @Query("select u from User u where u.tokenVersion > 0 or u.enabled = false")
+    List<User> findWithRevokedTokens();
+    
+    List<User> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
+    
+    @Query("select u.listVersion from User u where u.id = :id")
+    Optional<Long> findListVersionById(Long id);
+    
+    @Modifying
+    @Query("update User u set u.listVersion = u.listVersion + 1 where u.id in :ids")
+    int incrementListVersions(Collection<Long> ids);
 }
@@ -0,0 +1,67 @@
+package com.todo.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs rejected credentials at most {@code todo.logging.auth-failures-per-minute} times a
+ * minute. A client retrying a bad token, or someone spraying forged ones, would otherwise write
+ * a line per request; the first line of the next minute reports how many were left out.
+ *
+ * <p>Only the exception type and message are logged: the stack trace of a rejected token says
+ * nothing the message does not.
+ */
+@Component
+public class AuthFailureLog {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthFailureLog.class);
+
+    private static final long WINDOW_MILLIS = 60_000;
+
+    private final int perWindow;
+
+    private long windowStart;
+
+    private int logged;
+
+    private long suppressed;
+
+    public AuthFailureLog(@Value("${todo.logging.auth-failures-per-minute:10}") int perWindow) {
+        this.perWindow = perWindow;
+    }
+
+    public void rejected(String reason, Exception cause) {
+        long skipped = admit();
+        if (skipped < 0) {
+            return;
+        }
+        String detail = cause == null ? "" : ": " + cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        if (skipped > 0) {
+            log.warn("{}{} ({} similar failures not logged)", reason, detail, skipped);
+        } else {
+            log.warn("{}{}", reason, detail);
+        }
+    }
+
+    /**
+     * @return the number of failures dropped since the last one logged, or -1 if this one
+     * should be dropped too
+     */
+    private synchronized long admit() {
+        long now = System.currentTimeMillis();
+        if (now - windowStart >= WINDOW_MILLIS) {
+            windowStart = now;
+            logged = 0;
+        }
+        if (logged >= perWindow) {
+            suppressed++;
+            return -1;
+        }
+        logged++;
+        long skipped = suppressed;
+        suppressed = 0;
+        return skipped;
+    }
+}
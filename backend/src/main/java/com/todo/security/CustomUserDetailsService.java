@@ -1,6 +1,7 @@
 package com.todo.security;
 
 import com.todo.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,6 +18,7 @@ public class CustomUserDetailsService implements UserDetailsService {
     private UserRepository userRepository;
 
     @Override
+    @Timed(value = "auth.user.load", description = "Time spent loading a user for authentication", histogram = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         com.todo.model.User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
@@ -1,5 +1,6 @@
 package com.todo.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,22 +8,36 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+/**
+ * Authenticates bearer-token requests. Access tokens carry the user's id, role and token
+ * version, so the principal is built from the verified claims and checked against
+ * {@link TokenRevocations} without touching the database. Tokens issued before those claims
+ * existed fall back to {@link UserPrincipalCache}.
+ */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    /** Request attribute holding the bearer token's expiration ({@link java.util.Date}). */
+    public static final String TOKEN_EXPIRATION_ATTRIBUTE = "com.todo.security.JwtAuthenticationFilter.expiration";
+
     @Autowired
     private JwtTokenUtil jwtTokenUtil;
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private TokenRevocations tokenRevocations;
+
+    @Autowired
+    private AuthFailureLog authFailureLog;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
@@ -30,30 +45,48 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String requestTokenHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwtToken = null;
+        Claims claims = null;
 
         // JWT Token is in the form "Bearer token"
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
+            String jwtToken = requestTokenHeader.substring(7);
             try {
-                username = jwtTokenUtil.getUsernameFromToken(jwtToken);
+                claims = jwtTokenUtil.getVerifiedClaims(jwtToken);
             } catch (Exception e) {
-                logger.error("Unable to get JWT Token or token has expired", e);
+                authFailureLog.rejected("Rejected bearer token", e);
             }
         }
 
         // Validate token
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-
-            if (jwtTokenUtil.validateToken(jwtToken, userDetails)) {
+        if (claims != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            TodoUserPrincipal principal = principal(claims);
+            if (principal != null && principal.isEnabled() && jwtTokenUtil.validateToken(claims, principal)) {
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+                        principal, null, principal.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                request.setAttribute(TOKEN_EXPIRATION_ATTRIBUTE, claims.getExpiration());
             }
         }
         chain.doFilter(request, response);
     }
+
+    private TodoUserPrincipal principal(Claims claims) {
+        Long userId = claims.get(JwtTokenUtil.USER_ID_CLAIM, Long.class);
+        if (userId == null) {
+            try {
+                return userPrincipalCache.get(claims.getSubject());
+            } catch (UsernameNotFoundException e) {
+                authFailureLog.rejected("Bearer token subject no longer exists", null);
+                return null;
+            }
+        }
+        Long version = claims.get(JwtTokenUtil.TOKEN_VERSION_CLAIM, Long.class);
+        if (tokenRevocations.isRevoked(userId, version != null ? version : 0L)) {
+            authFailureLog.rejected("Bearer token has been revoked", null);
+            return null;
+        }
+        return new TodoUserPrincipal(userId, claims.getSubject(),
+                claims.get(JwtTokenUtil.ROLE_CLAIM, String.class), true);
+    }
 }
@@ -0,0 +1,72 @@
+package com.todo.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.dto.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Applies the {@link RateLimiter} limits to API requests before they reach a controller, so a
+ * refused login or register never gets as far as BCrypt. Runs right after
+ * {@link JwtAuthenticationFilter}, which lets API calls be limited per user as well as per IP.
+ * Refused requests get {@code 429 Too Many Requests} with {@code Retry-After}.
+ *
+ * <p>The client IP is the request's remote address, which Tomcat takes from
+ * {@code X-Forwarded-For} when the connection comes from a trusted proxy
+ * ({@code server.tomcat.remoteip.internal-proxies}).
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimiter.isEnabled() || !path(request).startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long retryAfterSeconds;
+        if (path(request).startsWith("/api/auth/")) {
+            retryAfterSeconds = rateLimiter.tryAcquire(RateLimiter.AUTH_IP, request.getRemoteAddr());
+        } else {
+            retryAfterSeconds = rateLimiter.tryAcquire(RateLimiter.API_IP, request.getRemoteAddr());
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (retryAfterSeconds == 0 && authentication != null
+                    && authentication.getPrincipal() instanceof TodoUserPrincipal principal) {
+                retryAfterSeconds = rateLimiter.tryAcquire(RateLimiter.API_USER, principal.getUsername());
+            }
+        }
+        if (retryAfterSeconds > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    new ErrorResponse("Too many requests, try again later", HttpStatus.TOO_MANY_REQUESTS.value()));
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
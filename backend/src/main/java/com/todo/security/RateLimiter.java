@@ -0,0 +1,136 @@
+package com.todo.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.todo.exception.RateLimitedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-caller request allowances, one {@link TokenBucket} per limit and key (an IP address or a
+ * username).
+ *
+ * <p>Each limit is configured as {@code todo.rate-limit.<limit>.burst}, the requests allowed at
+ * once, and {@code todo.rate-limit.<limit>.per-minute}, the sustained rate; a rate of 0 turns
+ * the limit off. Buckets live in a bounded map of {@code todo.rate-limit.max-keys} entries and
+ * are dropped after ten idle minutes, by which time every configured bucket has refilled anyway.
+ *
+ * <p>Decisions are counted in {@code todo.rate-limit.requests}, tagged with the limit and
+ * whether the request was allowed or rejected.
+ */
+@Component
+public class RateLimiter {
+
+    /** Login, register and refresh calls per client IP. */
+    public static final String AUTH_IP = "auth.ip";
+
+    /** Login attempts per username, whichever IP they come from. */
+    public static final String AUTH_USER = "auth.user";
+
+    /** Other API calls per client IP. */
+    public static final String API_IP = "api.ip";
+
+    /** Other API calls per authenticated user. */
+    public static final String API_USER = "api.user";
+
+    private static final Map<String, Limit> DEFAULTS = Map.of(
+            AUTH_IP, new Limit(30, 60),
+            AUTH_USER, new Limit(5, 10),
+            API_IP, new Limit(300, 9000),
+            API_USER, new Limit(100, 3000));
+
+    private record Limit(int burst, int perMinute) {
+
+        long intervalNanos() {
+            return TimeUnit.MINUTES.toNanos(1) / perMinute;
+        }
+    }
+
+    private final boolean enabled;
+
+    private final Map<String, Limit> limits = new HashMap<>();
+
+    private final Map<String, Counter> allowed = new HashMap<>();
+
+    private final Map<String, Counter> rejected = new HashMap<>();
+
+    private final Cache<String, TokenBucket> buckets;
+
+    public RateLimiter(@Value("${todo.rate-limit.enabled:true}") boolean enabled,
+                       @Value("${todo.rate-limit.max-keys:100000}") long maxKeys,
+                       Environment environment,
+                       MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        for (String name : List.of(AUTH_IP, AUTH_USER, API_IP, API_USER)) {
+            Limit defaults = DEFAULTS.get(name);
+            String prefix = "todo.rate-limit." + name;
+            limits.put(name, new Limit(
+                    environment.getProperty(prefix + ".burst", Integer.class, defaults.burst()),
+                    environment.getProperty(prefix + ".per-minute", Integer.class, defaults.perMinute())));
+            allowed.put(name, counter(meterRegistry, name, "allowed"));
+            rejected.put(name, counter(meterRegistry, name, "rejected"));
+        }
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+        Gauge.builder("todo.rate-limit.keys", buckets, Cache::estimatedSize)
+                .description("Callers with a tracked rate limit bucket")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Takes one request from {@code key}'s allowance under {@code limit}.
+     *
+     * @return 0 if the request may proceed, otherwise the seconds until it could be retried
+     */
+    public long tryAcquire(String limit, String key) {
+        Limit configured = limits.get(limit);
+        if (!enabled || configured.perMinute() <= 0 || key == null) {
+            return 0;
+        }
+        TokenBucket bucket = buckets.get(limit + ':' + key.toLowerCase(Locale.ROOT), k -> new TokenBucket());
+        long waitNanos = bucket.tryAcquire(System.nanoTime(), configured.intervalNanos(), Math.max(configured.burst(), 1));
+        if (waitNanos == 0) {
+            allowed.get(limit).increment();
+            return 0;
+        }
+        rejected.get(limit).increment();
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    /**
+     * Like {@link #tryAcquire}, but throws when the allowance is used up.
+     *
+     * @throws RateLimitedException if the request must be refused
+     */
+    public void acquire(String limit, String key) {
+        long retryAfterSeconds = tryAcquire(limit, key);
+        if (retryAfterSeconds > 0) {
+            throw new RateLimitedException("Too many requests, try again later", retryAfterSeconds);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String limit, String outcome) {
+        return Counter.builder("todo.rate-limit.requests")
+                .description("Requests checked against a rate limit")
+                .tag("limit", limit)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,57 @@
+package com.todo.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Authenticated principal for bearer-token requests. Carries what the request path needs
+ * (id, role, enabled) so services never have to look the user up again.
+ */
+@Getter
+public class TodoUserPrincipal implements UserDetails {
+
+    private final Long id;
+    private final String username;
+    private final String role;
+    private final boolean enabled;
+    private final List<GrantedAuthority> authorities;
+
+    public TodoUserPrincipal(Long id, String username, String role, boolean enabled) {
+        this.id = id;
+        this.username = username;
+        this.role = role;
+        this.enabled = enabled;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        // Bearer-token principals never carry credentials
+        return null;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+}
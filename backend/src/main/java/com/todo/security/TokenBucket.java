@@ -0,0 +1,38 @@
+package com.todo.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket kept as a single timestamp, so it can be updated with one compare-and-set.
+ *
+ * <p>This is the generic cell rate algorithm: instead of a token count plus a refill time, the
+ * bucket stores when it would next be completely full if nothing else were taken. Taking a
+ * token pushes that time one refill interval further; a request is refused when it lies more
+ * than {@code burst - 1} intervals in the future. The behaviour is identical to a token bucket
+ * holding {@code burst} tokens that refills one token per interval.
+ */
+final class TokenBucket {
+
+    private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Takes a token if one is available at {@code now}.
+     *
+     * @param intervalNanos time to refill one token
+     * @return 0 if a token was taken, otherwise how long until one will be available
+     */
+    long tryAcquire(long now, long intervalNanos, int burst) {
+        long tolerance = intervalNanos * (burst - 1);
+        while (true) {
+            long current = fullAt.get();
+            long base = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+            long wait = base - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, base + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
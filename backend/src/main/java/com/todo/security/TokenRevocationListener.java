@@ -0,0 +1,46 @@
+package com.todo.security;
+
+import com.todo.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener on {@link User} that passes token version bumps, disabling and removal on to
+ * {@link TokenRevocations} once they commit. Created by Hibernate through Spring like
+ * {@link UserPrincipalCacheInvalidator}, hence the lazily resolved bean.
+ */
+public class TokenRevocationListener {
+
+    private final ObjectProvider<TokenRevocations> tokenRevocations;
+
+    public TokenRevocationListener(ObjectProvider<TokenRevocations> tokenRevocations) {
+        this.tokenRevocations = tokenRevocations;
+    }
+
+    @PostUpdate
+    public void onUserUpdated(User user) {
+        afterCommit(() -> tokenRevocations.getObject().update(user));
+    }
+
+    @PostRemove
+    public void onUserRemoved(User user) {
+        Long userId = user.getId();
+        afterCommit(() -> tokenRevocations.getObject().removed(userId));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
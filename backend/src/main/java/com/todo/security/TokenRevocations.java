@@ -0,0 +1,101 @@
+package com.todo.security;
+
+import com.todo.event.TokensRevokedEvent;
+import com.todo.model.User;
+import com.todo.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Which access tokens are revoked, held in memory so checking a token costs a map lookup.
+ *
+ * <p>A token is revoked when it was issued under a token version older than its user's
+ * current one, or when its user has been disabled or removed. Only users with revoked tokens
+ * have an entry, so the map stays small: it is loaded from the database at startup and kept
+ * current by {@link TokenRevocationListener} for changes made by this instance. Changes made by
+ * other instances are picked up by re-reading the users updated since the last refresh, every
+ * {@code security.token-revocations.refresh-interval}; the window reaches back a further
+ * {@code security.token-revocations.overlap} to allow for clock differences between instances
+ * and for slow commits. Changes made outside the application must set {@code updated_at} too.
+ *
+ * <p>When a user's tokens are newly revoked a {@link TokensRevokedEvent} is published, so
+ * long-lived streams opened with them are closed as well.
+ */
+@Component
+public class TokenRevocations {
+
+    // Users in this map reject tokens with a version below the value; disabled and removed
+    // users reject every token
+    private final ConcurrentHashMap<Long, Long> minimumVersions = new ConcurrentHashMap<>();
+
+    private final UserRepository userRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Duration overlap;
+
+    // Start of the last read; only the refresh thread uses it after startup
+    private volatile LocalDateTime refreshedAt;
+
+    public TokenRevocations(UserRepository userRepository, ApplicationEventPublisher eventPublisher,
+                            @Value("${security.token-revocations.overlap:PT1M}") Duration overlap) {
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.overlap = overlap;
+    }
+
+    @PostConstruct
+    void load() {
+        refreshedAt = LocalDateTime.now();
+        userRepository.findWithRevokedTokens().forEach(this::apply);
+    }
+
+    @Scheduled(fixedDelayString = "${security.token-revocations.refresh-interval:PT5S}")
+    void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        userRepository.findByUpdatedAtGreaterThanEqual(refreshedAt.minus(overlap)).forEach(this::update);
+        refreshedAt = now;
+    }
+
+    public boolean isRevoked(Long userId, long tokenVersion) {
+        Long minimum = minimumVersions.get(userId);
+        return minimum != null && tokenVersion < minimum;
+    }
+
+    void update(User user) {
+        if (apply(user)) {
+            eventPublisher.publishEvent(new TokensRevokedEvent(user.getId()));
+        }
+    }
+
+    void removed(Long userId) {
+        Long previous = minimumVersions.put(userId, Long.MAX_VALUE);
+        if (previous == null || previous < Long.MAX_VALUE) {
+            eventPublisher.publishEvent(new TokensRevokedEvent(userId));
+        }
+    }
+
+    // Returns whether tokens accepted before are now rejected
+    private boolean apply(User user) {
+        Long previous;
+        long minimum;
+        if (!Boolean.TRUE.equals(user.getEnabled())) {
+            minimum = Long.MAX_VALUE;
+            previous = minimumVersions.put(user.getId(), minimum);
+        } else if (user.getTokenVersion() != null && user.getTokenVersion() > 0) {
+            minimum = user.getTokenVersion();
+            previous = minimumVersions.put(user.getId(), minimum);
+        } else {
+            minimumVersions.remove(user.getId());
+            return false;
+        }
+        return previous == null || previous < minimum;
+    }
+}
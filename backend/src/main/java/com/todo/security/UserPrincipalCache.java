@@ -0,0 +1,50 @@
+package com.todo.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.todo.model.User;
+import com.todo.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Small cache of {@link TodoUserPrincipal}s keyed by username, so authenticated requests
+ * do not hit the users table. Entries are dropped when the user changes (see
+ * {@link UserPrincipalCacheInvalidator}) and otherwise age out after a TTL.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final UserRepository userRepository;
+
+    private final Cache<String, TodoUserPrincipal> principals;
+
+    @Autowired
+    public UserPrincipalCache(UserRepository userRepository,
+                              @Value("${security.principal-cache.max-size:10000}") long maxSize,
+                              @Value("${security.principal-cache.ttl:10m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public TodoUserPrincipal get(String username) {
+        return principals.get(username, this::load);
+    }
+
+    public void invalidate(String username) {
+        principals.invalidate(username);
+    }
+
+    private TodoUserPrincipal load(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+        return new TodoUserPrincipal(user.getId(), user.getUsername(), user.getRole(), user.getEnabled());
+    }
+}
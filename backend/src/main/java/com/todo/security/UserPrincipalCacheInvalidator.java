@@ -0,0 +1,40 @@
+package com.todo.security;
+
+import com.todo.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener on {@link User} that evicts the cached principal whenever a user row is
+ * updated (role change, disabling) or removed. Hibernate creates it through Spring while the
+ * entity manager factory is being built, hence the lazily resolved cache.
+ */
+public class UserPrincipalCacheInvalidator {
+
+    private final ObjectProvider<UserPrincipalCache> userPrincipalCache;
+
+    public UserPrincipalCacheInvalidator(ObjectProvider<UserPrincipalCache> userPrincipalCache) {
+        this.userPrincipalCache = userPrincipalCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        String username = user.getUsername();
+        UserPrincipalCache cache = userPrincipalCache.getObject();
+        cache.invalidate(username);
+
+        // Evict again once the change is visible, so a concurrent request cannot re-cache the old row
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(username);
+                }
+            });
+        }
+    }
+}
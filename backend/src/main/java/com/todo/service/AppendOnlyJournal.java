@@ -0,0 +1,332 @@
+package com.todo.service;
+
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file journal with group commit.
+ *
+ * <p>Appends from any thread are queued and written by a single writer thread, which waits a
+ * short commit interval for more appends to arrive, writes them together and fsyncs once. An
+ * append completes only after that fsync, so a completed append survives a crash.
+ *
+ * <p>Each record is {@code [payload length][sequence][payload][CRC32]}. When the file is
+ * reopened, a torn record at the tail (a crash mid-write, never acknowledged) is cut off, and
+ * the records after {@code consumedSeq} are handed back for replay.
+ *
+ * <p>The owner reports progress with {@link #checkpoint}. Once everything written has been
+ * consumed, the writer truncates the file while it is idle. If the file reaches
+ * {@code maxBytes} first, the writer stops taking new groups until the consumer catches up.
+ */
+final class AppendOnlyJournal<T> implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(AppendOnlyJournal.class);
+
+    // Payload length and sequence; the CRC covers both plus the payload
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES;
+
+    private static final int MAX_PAYLOAD_BYTES = 1 << 20;
+
+    record Record<T>(long seq, T value) {
+    }
+
+    private record PendingAppend<T>(T value, byte[] payload, CompletableFuture<Long> written) {
+    }
+
+    private final Path path;
+
+    private final FileChannel channel;
+
+    private final Function<T, byte[]> encoder;
+
+    private final Consumer<List<Record<T>>> onDurable;
+
+    private final long commitIntervalNanos;
+
+    private final long maxBytes;
+
+    private final Timer fsyncTimer;
+
+    private final LinkedBlockingQueue<PendingAppend<T>> queue = new LinkedBlockingQueue<>();
+
+    private final List<Record<T>> recovered;
+
+    private final Thread writer;
+
+    private volatile long consumedSeq;
+
+    private volatile boolean closed;
+
+    // Owned by the writer thread once the constructor returns: the last sequence written and
+    // the length of the complete records in the file
+    private long lastSeq;
+
+    private long end;
+
+    /**
+     * Opens (or creates) the journal and starts the writer thread.
+     *
+     * @param consumedSeq records up to this sequence are already consumed and not replayed;
+     *                    new records are numbered after it even if the file is empty
+     * @param onDurable   called on the writer thread with each fsynced group, in sequence
+     *                    order, before the appends complete
+     */
+    AppendOnlyJournal(Path path, long consumedSeq, Function<T, byte[]> encoder, Function<byte[], T> decoder,
+                      Consumer<List<Record<T>>> onDurable, Duration commitInterval, long maxBytes,
+                      Timer fsyncTimer) throws IOException {
+        this.path = path;
+        this.encoder = encoder;
+        this.onDurable = onDurable;
+        this.commitIntervalNanos = commitInterval.toNanos();
+        this.maxBytes = maxBytes;
+        this.fsyncTimer = fsyncTimer;
+        this.consumedSeq = consumedSeq;
+
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        boolean created = Files.notExists(path);
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (created) {
+            // Make the new directory entry itself durable
+            syncDirectory(directory);
+        }
+        this.recovered = recover(decoder, consumedSeq);
+
+        this.writer = new Thread(this::writeLoop, "journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Records found after {@code consumedSeq} when the journal was opened.
+     */
+    List<Record<T>> recovered() {
+        return recovered;
+    }
+
+    /**
+     * Queues {@code value} for the next group commit.
+     *
+     * @return completes with the record's sequence once it is fsynced, or exceptionally if it
+     * could not be written
+     */
+    CompletableFuture<Long> append(T value) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Journal is closed"));
+        }
+        byte[] payload = encoder.apply(value);
+        if (payload.length > MAX_PAYLOAD_BYTES) {
+            throw new IllegalArgumentException("Journal record exceeds " + MAX_PAYLOAD_BYTES + " bytes");
+        }
+        PendingAppend<T> pending = new PendingAppend<>(value, payload, new CompletableFuture<>());
+        queue.add(pending);
+        return pending.written();
+    }
+
+    /**
+     * Marks every record up to {@code seq} as consumed, so it no longer needs to be kept.
+     */
+    void checkpoint(long seq) {
+        consumedSeq = Math.max(consumedSeq, seq);
+    }
+
+    /**
+     * Writes what is already queued, then stops the writer and closes the file. Appends that
+     * arrive meanwhile fail.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        PendingAppend<T> pending;
+        while ((pending = queue.poll()) != null) {
+            pending.written().completeExceptionally(new IllegalStateException("Journal is closed"));
+        }
+        channel.close();
+    }
+
+    private List<Record<T>> recover(Function<byte[], T> decoder, long consumedSeq) throws IOException {
+        List<Record<T>> records = new ArrayList<>();
+        long size = channel.size();
+        long position = 0;
+        lastSeq = consumedSeq;
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (position + HEADER_BYTES + Integer.BYTES <= size) {
+            header.clear();
+            readFully(header, position);
+            int length = header.getInt(0);
+            long seq = header.getLong(Integer.BYTES);
+            if (length < 0 || length > MAX_PAYLOAD_BYTES || position + HEADER_BYTES + length + Integer.BYTES > size) {
+                break;
+            }
+            ByteBuffer body = ByteBuffer.allocate(length + Integer.BYTES);
+            readFully(body, position + HEADER_BYTES);
+            CRC32 crc = new CRC32();
+            crc.update(header.array(), 0, HEADER_BYTES);
+            crc.update(body.array(), 0, length);
+            if ((int) crc.getValue() != body.getInt(length)) {
+                break;
+            }
+            if (seq > consumedSeq) {
+                records.add(new Record<>(seq, decoder.apply(Arrays.copyOf(body.array(), length))));
+            }
+            lastSeq = Math.max(lastSeq, seq);
+            position += HEADER_BYTES + length + Integer.BYTES;
+        }
+
+        if (position < size) {
+            log.warn("Discarding {} bytes of incomplete records at the end of journal {}", size - position, path);
+            channel.truncate(position);
+            channel.force(true);
+        }
+        channel.position(position);
+        end = position;
+        return List.copyOf(records);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of journal " + path);
+            }
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingAppend<T>> group = new ArrayList<>();
+        while (true) {
+            PendingAppend<T> first;
+            try {
+                first = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (first == null) {
+                if (closed) {
+                    return;
+                }
+                truncateIfConsumed();
+                continue;
+            }
+            if (commitIntervalNanos > 0) {
+                // Give concurrent appends the chance to share this fsync
+                LockSupport.parkNanos(commitIntervalNanos);
+            }
+            group.add(first);
+            queue.drainTo(group);
+            awaitSpace();
+            write(group);
+            group.clear();
+        }
+    }
+
+    private void write(List<PendingAppend<T>> group) {
+        int total = 0;
+        for (PendingAppend<T> pending : group) {
+            total += HEADER_BYTES + pending.payload().length + Integer.BYTES;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        List<Record<T>> records = new ArrayList<>(group.size());
+        long seq = lastSeq;
+        CRC32 crc = new CRC32();
+        for (PendingAppend<T> pending : group) {
+            int start = buffer.position();
+            buffer.putInt(pending.payload().length).putLong(++seq).put(pending.payload());
+            crc.reset();
+            crc.update(buffer.array(), start, buffer.position() - start);
+            buffer.putInt((int) crc.getValue());
+            records.add(new Record<>(seq, pending.value()));
+        }
+        buffer.flip();
+
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            long fsyncStart = System.nanoTime();
+            channel.force(false);
+            fsyncTimer.record(System.nanoTime() - fsyncStart, TimeUnit.NANOSECONDS);
+        } catch (IOException e) {
+            log.error("Writing {} records to journal {} failed", group.size(), path, e);
+            rollBack();
+            group.forEach(pending -> pending.written().completeExceptionally(e));
+            return;
+        }
+        lastSeq = seq;
+        end += total;
+
+        try {
+            onDurable.accept(records);
+        } catch (RuntimeException e) {
+            log.error("Journal consumer failed for records up to {}", seq, e);
+        }
+        for (int i = 0; i < group.size(); i++) {
+            group.get(i).written().complete(records.get(i).seq());
+        }
+    }
+
+    private void rollBack() {
+        try {
+            channel.truncate(end);
+            channel.position(end);
+        } catch (IOException e) {
+            log.error("Could not roll back journal {} to {} bytes", path, end, e);
+        }
+    }
+
+    private void awaitSpace() {
+        while (!closed && end >= maxBytes) {
+            truncateIfConsumed();
+            if (end >= maxBytes) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+    }
+
+    private void truncateIfConsumed() {
+        try {
+            if (consumedSeq >= lastSeq && end > 0) {
+                channel.truncate(0);
+                channel.position(0);
+                channel.force(true);
+                end = 0;
+            }
+        } catch (IOException e) {
+            log.error("Could not truncate journal {}", path, e);
+        }
+    }
+
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform; the file contents are still fsynced
+        }
+    }
+}
@@ -2,17 +2,27 @@ package com.todo.service;
 
 import com.todo.dto.AuthResponse;
 import com.todo.dto.LoginRequest;
+import com.todo.dto.RefreshRequest;
 import com.todo.dto.RegisterRequest;
+import com.todo.exception.ConflictException;
+import com.todo.exception.InvalidTokenException;
+import com.todo.exception.ResourceNotFoundException;
 import com.todo.model.User;
 import com.todo.repository.UserRepository;
 import com.todo.security.JwtTokenUtil;
+import com.todo.security.PasswordHashingExecutor;
+import com.todo.security.RateLimiter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class AuthService {
@@ -30,50 +40,102 @@ public class AuthService {
     private AuthenticationManager authenticationManager;
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
-    public AuthResponse register(RegisterRequest request) {
+    // Cheap checks run on the request thread; only the BCrypt work and what follows it go to the
+    // hashing pool
+    public CompletableFuture<AuthResponse> register(RegisterRequest request) {
         // Check if username already exists
         if (userRepository.existsByUsername(request.getUsername())) {
-            throw new RuntimeException("Username already exists");
+            throw new ConflictException("Username already exists");
         }
 
         // Check if email already exists
         if (userRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Email already exists");
+            throw new ConflictException("Email already exists");
         }
 
-        // Create new user
-        User user = new User();
-        user.setUsername(request.getUsername());
-        user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setRole("USER");
-        user.setEnabled(true);
+        return passwordHashingExecutor.submit("encode", () -> {
+            // Create new user
+            User user = new User();
+            user.setUsername(request.getUsername());
+            user.setEmail(request.getEmail());
+            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            user.setRole("USER");
+            user.setEnabled(true);
+
+            // One transaction, so a user whose refresh token could not be issued is not kept
+            String refreshToken;
+            try {
+                refreshToken = new TransactionTemplate(transactionManager).execute(status -> {
+                    userRepository.save(user);
+                    return refreshTokenService.issue(user.getId());
+                });
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent registration took the username or email after the checks above
+                throw new ConflictException(userRepository.existsByUsername(request.getUsername())
+                        ? "Username already exists" : "Email already exists");
+            }
+            return issueTokens(user, refreshToken);
+        });
+    }
+
+    public CompletableFuture<AuthResponse> login(LoginRequest request) {
+        // Caps password guessing against one account however many IPs it is spread over
+        rateLimiter.acquire(RateLimiter.AUTH_USER, request.getUsername());
 
-        userRepository.save(user);
+        // The password check inside authenticate() is the expensive part
+        return passwordHashingExecutor.submit("matches", () -> {
+            // Authenticate user
+            authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
+            );
 
-        // Generate token
-        UserDetails userDetails = userDetailsService.loadUserByUsername(request.getUsername());
-        String token = jwtTokenUtil.generateToken(userDetails);
+            User user = userRepository.findByUsername(request.getUsername())
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        return new AuthResponse(token, user.getUsername(), user.getEmail());
+            return issueTokens(user, refreshTokenService.issue(user.getId()));
+        });
     }
 
-    public AuthResponse login(LoginRequest request) {
-        // Authenticate user
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
-        );
+    /**
+     * Exchanges a refresh token for a new access token and its successor refresh token.
+     */
+    public AuthResponse refresh(RefreshRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken())
+                .orElseThrow(() -> new InvalidTokenException("Invalid refresh token"));
+        User user = userRepository.findById(rotation.userId())
+                .filter(User::getEnabled)
+                .orElseThrow(() -> new InvalidTokenException("Invalid refresh token"));
+        return issueTokens(user, rotation.refreshToken());
+    }
 
-        // Load user details
-        UserDetails userDetails = userDetailsService.loadUserByUsername(request.getUsername());
-        User user = userRepository.findByUsername(request.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public void logout(RefreshRequest request) {
+        refreshTokenService.revoke(request.getRefreshToken());
+    }
 
-        // Generate token
-        String token = jwtTokenUtil.generateToken(userDetails);
+    /**
+     * Revokes every access and refresh token the user holds, on all devices.
+     */
+    @Transactional
+    public void logoutAll(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        refreshTokenService.revokeAll(userId);
+    }
 
-        return new AuthResponse(token, user.getUsername(), user.getEmail());
+    private AuthResponse issueTokens(User user, String refreshToken) {
+        return new AuthResponse(jwtTokenUtil.generateAccessToken(user), jwtTokenUtil.getExpiration() / 1000,
+                refreshToken, user.getUsername(), user.getEmail());
     }
 }
@@ -0,0 +1,112 @@
+package com.todo.service;
+
+import com.todo.model.RefreshToken;
+import com.todo.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Opaque refresh tokens: 256 random bits, stored only as their SHA-256.
+ *
+ * <p>Every refresh uses the presented token up and issues its successor in the same family. A
+ * used token presented again means one of the two copies was stolen, so the whole family is
+ * revoked and the client has to log in again. Failed rotations return empty rather than
+ * throwing, so the revocation is committed.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${jwt.refresh-expiration:30d}")
+    private Duration refreshExpiration;
+
+    public record Rotation(Long userId, String refreshToken) {
+    }
+
+    public String issue(Long userId) {
+        return save(userId, UUID.randomUUID().toString());
+    }
+
+    public Optional<Rotation> rotate(String token) {
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(hash(token)).orElse(null);
+        if (stored == null) {
+            return Optional.empty();
+        }
+        if (stored.getExpiresAt().isBefore(LocalDateTime.now())) {
+            refreshTokenRepository.delete(stored);
+            return Optional.empty();
+        }
+        // markUsed() also catches a concurrent refresh with the same token that got there first
+        if (stored.getUsed() || refreshTokenRepository.markUsed(stored.getId()) == 0) {
+            log.warn("Refresh token reused for user {}; revoking its family", stored.getUserId());
+            refreshTokenRepository.deleteByFamily(stored.getFamily());
+            return Optional.empty();
+        }
+        return Optional.of(new Rotation(stored.getUserId(), save(stored.getUserId(), stored.getFamily())));
+    }
+
+    public void revoke(String token) {
+        refreshTokenRepository.findByTokenHash(hash(token))
+                .ifPresent(stored -> refreshTokenRepository.deleteByFamily(stored.getFamily()));
+    }
+
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-cleanup-interval:PT1H}")
+    public void deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.debug("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    private String save(Long userId, String family) {
+        byte[] random = new byte[32];
+        RANDOM.nextBytes(random);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(token));
+        refreshToken.setFamily(family);
+        refreshToken.setUserId(userId);
+        refreshToken.setCreatedAt(now);
+        refreshToken.setExpiresAt(now.plus(refreshExpiration));
+        refreshTokenRepository.save(refreshToken);
+        return token;
+    }
+
+    private static String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
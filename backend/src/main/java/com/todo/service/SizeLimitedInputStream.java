@@ -0,0 +1,58 @@
+package com.todo.service;
+
+import com.todo.exception.PayloadTooLargeException;
+import org.springframework.util.unit.DataSize;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Fails a read once more than the limit has been read, for uploads whose length is not declared
+ * up front (chunked) or is declared wrongly.
+ */
+final class SizeLimitedInputStream extends FilterInputStream {
+
+    private final DataSize limit;
+
+    private long remaining;
+
+    SizeLimitedInputStream(InputStream in, DataSize limit) {
+        super(in);
+        this.limit = limit;
+        this.remaining = limit.toBytes();
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        // One byte more than allowed is enough to tell the upload is too large
+        int n = super.read(buffer, offset, (int) Math.min(length, Math.max(remaining + 1, 1)));
+        if (n > 0) {
+            count(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(Math.min(n, remaining + 1));
+        count(skipped);
+        return skipped;
+    }
+
+    private void count(long n) {
+        remaining -= n;
+        if (remaining < 0) {
+            throw new PayloadTooLargeException("Uploads are limited to " + limit);
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package com.todo.service;
+
+import com.todo.dto.TodoFeedEvent;
+import com.todo.event.TokensRevokedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-user server-sent event feed of committed todo changes, read from the {@link TodoChangeLog}
+ * so that a stream sees the changes committed by every instance, not only its own.
+ *
+ * <p>Every {@code todo.feed.poll-interval}, new log rows are read by id and handed to the streams
+ * of their users; event ids are log ids. Ids are taken just before commit, so a missing id is
+ * nearly always a transaction about to commit: delivery waits for it for up to
+ * {@code todo.feed.gap-timeout} before treating it as rolled back. A client reconnecting with
+ * {@code Last-Event-ID} gets the events it missed replayed from the log; if some of them are no
+ * longer there (older than {@code todo.feed.retention}, or too many) it gets a single
+ * {@code reset} event instead.
+ *
+ * <p>The poller never writes to clients. Each subscriber has a bounded queue of its own,
+ * drained in order by one of {@code todo.feed.dispatch-threads} dispatcher threads, so a client
+ * that stops reading holds up one dispatcher thread for at most the connector's write timeout.
+ * A subscriber whose queue fills up is closed and resumes from the log when it reconnects;
+ * other subscribers are not affected.
+ *
+ * <p>A stream lasts no longer than the access token that opened it, and all of a user's streams
+ * are closed when their tokens are revoked; clients reconnect with a fresh token.
+ */
+@Component
+public class TodoChangeFeed implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoChangeFeed.class);
+
+    private static final TodoFeedEvent HEARTBEAT = new TodoFeedEvent(null, "heartbeat", null, null);
+
+    private final ConcurrentHashMap<Long, List<Subscriber>> feeds = new ConcurrentHashMap<>();
+
+    private final TodoChangeLog changeLog;
+
+    private final ThreadPoolExecutor dispatcher;
+
+    private final int pollBatch;
+
+    private final int subscriberQueueSize;
+
+    private final long timeoutMillis;
+
+    private final Duration retention;
+
+    private final long gapTimeoutMillis;
+
+    // Guards subscriber registration and delivery, so a new subscriber's replay ends exactly
+    // where its live events begin
+    private final Object dispatchLock = new Object();
+
+    // Last log id handed to subscribers; only the poller moves it
+    private long deliveredThrough;
+
+    // When the poller first found the id after deliveredThrough missing, 0 if it is not
+    private long gapSince;
+
+    public TodoChangeFeed(TodoChangeLog changeLog,
+                          @Value("${todo.feed.timeout:30m}") Duration timeout,
+                          @Value("${todo.feed.retention:30m}") Duration retention,
+                          @Value("${todo.feed.gap-timeout:5s}") Duration gapTimeout,
+                          @Value("${todo.feed.poll-batch:500}") int pollBatch,
+                          @Value("${todo.feed.subscriber-queue-size:1000}") int subscriberQueueSize,
+                          @Value("${todo.feed.dispatch-threads:4}") int dispatchThreads) {
+        this.changeLog = changeLog;
+        this.pollBatch = pollBatch;
+        this.subscriberQueueSize = subscriberQueueSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.retention = retention;
+        this.gapTimeoutMillis = gapTimeout.toMillis();
+        AtomicInteger threads = new AtomicInteger();
+        // Holds at most one drain task per subscriber, so it is bounded by the subscriber count
+        this.dispatcher = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "todo-feed-dispatcher-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Starts after what is already in the log; the schema exists once all singletons do.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        synchronized (dispatchLock) {
+            deliveredThrough = changeLog.latestId();
+        }
+    }
+
+    public SseEmitter subscribe(Long userId, String lastEventId, Date tokenExpiration) {
+        long timeout = timeoutMillis;
+        if (tokenExpiration != null) {
+            timeout = Math.max(1, Math.min(timeout, tokenExpiration.getTime() - System.currentTimeMillis()));
+        }
+        SseEmitter emitter = new SseEmitter(timeout);
+        long lastId = lastEventId == null ? -1 : parseId(lastEventId);
+        // Events the client has seen from a poller that is ahead of this one are not sent again
+        Subscriber subscriber = new Subscriber(userId, emitter, lastId);
+        emitter.onCompletion(subscriber::detach);
+        emitter.onTimeout(subscriber::detach);
+        emitter.onError(error -> subscriber.detach());
+
+        long through;
+        synchronized (dispatchLock) {
+            through = deliveredThrough;
+            feeds.compute(userId, (id, subscribers) -> {
+                List<Subscriber> list = subscribers == null ? new CopyOnWriteArrayList<>() : subscribers;
+                list.add(subscriber);
+                return list;
+            });
+        }
+        // Read outside the lock; live events queued meanwhile wait until the replay is in front of them
+        subscriber.start(lastEventId == null ? List.of() : missed(userId, lastId, through));
+        return emitter;
+    }
+
+    private List<TodoFeedEvent> missed(Long userId, long lastId, long through) {
+        if (lastId >= through) {
+            return List.of();
+        }
+        TodoFeedEvent reset = new TodoFeedEvent(Long.toString(through), "reset", null, null);
+        Long oldest = lastId < 0 ? null : changeLog.oldestId();
+        if (oldest == null || lastId + 1 < oldest) {
+            return List.of(reset);
+        }
+        List<TodoChangeLog.Entry> entries = changeLog.readAfter(userId, lastId, through, subscriberQueueSize + 1);
+        if (entries.size() > subscriberQueueSize) {
+            return List.of(reset);
+        }
+        return entries.stream().map(TodoChangeLog.Entry::event).toList();
+    }
+
+    private static long parseId(String eventId) {
+        try {
+            return Long.parseLong(eventId);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Hands new log rows to the streams of their users, in id order.
+     */
+    @Scheduled(fixedDelayString = "${todo.feed.poll-interval:PT0.5S}")
+    public void poll() {
+        if (feeds.isEmpty()) {
+            // Nobody to deliver to; a subscriber arriving from here on replays from the log
+            long latest = changeLog.latestId();
+            synchronized (dispatchLock) {
+                if (feeds.isEmpty()) {
+                    deliveredThrough = Math.max(deliveredThrough, latest);
+                    gapSince = 0;
+                    return;
+                }
+            }
+        }
+        List<TodoChangeLog.Entry> entries = changeLog.readAfter(deliveredThrough, pollBatch);
+        long now = System.currentTimeMillis();
+        synchronized (dispatchLock) {
+            for (TodoChangeLog.Entry entry : entries) {
+                if (entry.id() != deliveredThrough + 1) {
+                    if (gapSince == 0) {
+                        gapSince = now;
+                    }
+                    if (now - gapSince < gapTimeoutMillis) {
+                        // Read again from the gap next time, in case it fills
+                        return;
+                    }
+                    log.debug("Skipping change log ids {} to {}: not committed within {} ms",
+                            deliveredThrough + 1, entry.id() - 1, gapTimeoutMillis);
+                }
+                gapSince = 0;
+                List<Subscriber> subscribers = feeds.get(entry.userId());
+                if (subscribers != null) {
+                    for (Subscriber subscriber : subscribers) {
+                        subscriber.offer(entry.id(), entry.event());
+                    }
+                }
+                deliveredThrough = entry.id();
+            }
+        }
+    }
+
+    @EventListener
+    public void onTokensRevoked(TokensRevokedEvent revoked) {
+        List<Subscriber> subscribers = feeds.get(revoked.userId());
+        if (subscribers != null) {
+            subscribers.forEach(Subscriber::close);
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies and load balancers, and deletes changes older
+     * than the retention. Every instance deletes; whichever comes first does the work.
+     */
+    @Scheduled(fixedDelayString = "${todo.feed.heartbeat:PT25S}")
+    public void heartbeat() {
+        feeds.values().forEach(subscribers -> subscribers.forEach(Subscriber::heartbeat));
+        changeLog.deleteBefore(LocalDateTime.now().minus(retention));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+        feeds.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    /**
+     * One open stream. Events wait in its own queue, which at most one dispatcher thread drains
+     * at a time, so they are written in order and a slow connection only delays itself.
+     */
+    private final class Subscriber implements Runnable {
+
+        private final Long userId;
+
+        private final SseEmitter emitter;
+
+        private final long seenThrough;
+
+        // Guarded by this; HEARTBEAT stands for a keep-alive comment
+        private final ArrayDeque<TodoFeedEvent> pending = new ArrayDeque<>();
+
+        private boolean started;
+
+        private boolean scheduled;
+
+        private boolean lagging;
+
+        private boolean closed;
+
+        private Subscriber(Long userId, SseEmitter emitter, long seenThrough) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.seenThrough = seenThrough;
+        }
+
+        /**
+         * Puts the replayed events in front of the live ones queued so far and starts sending.
+         */
+        synchronized void start(List<TodoFeedEvent> replayed) {
+            started = true;
+            if (closed) {
+                return;
+            }
+            for (int i = replayed.size() - 1; i >= 0; i--) {
+                pending.addFirst(replayed.get(i));
+            }
+            if (pending.size() > subscriberQueueSize) {
+                lagging = true;
+                pending.clear();
+            }
+            if (lagging || !pending.isEmpty()) {
+                schedule();
+            }
+        }
+
+        /**
+         * Queues an event without blocking. A subscriber that has fallen this far behind is
+         * closed instead; the client reconnects and resumes from the log.
+         */
+        synchronized void offer(long id, TodoFeedEvent event) {
+            if (closed || lagging || id <= seenThrough) {
+                return;
+            }
+            if (pending.size() + 1 > subscriberQueueSize) {
+                lagging = true;
+                pending.clear();
+            } else {
+                pending.add(event);
+            }
+            if (started) {
+                schedule();
+            }
+        }
+
+        synchronized void heartbeat() {
+            // Anything queued keeps the connection busy anyway
+            if (started && !closed && !scheduled) {
+                pending.add(HEARTBEAT);
+                schedule();
+            }
+        }
+
+        void close() {
+            detach();
+            emitter.complete();
+        }
+
+        void detach() {
+            synchronized (this) {
+                closed = true;
+                pending.clear();
+            }
+            feeds.computeIfPresent(userId, (id, subscribers) -> {
+                subscribers.remove(this);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+        }
+
+        private void schedule() {
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+            try {
+                dispatcher.execute(this);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the stream is completed there
+                scheduled = false;
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                TodoFeedEvent next;
+                synchronized (this) {
+                    if (closed) {
+                        return;
+                    }
+                    closed = lagging;
+                    next = pending.poll();
+                    if (next == null && !lagging) {
+                        scheduled = false;
+                        return;
+                    }
+                }
+                if (lagging) {
+                    log.debug("Closing change feed subscriber that fell {} events behind", subscriberQueueSize);
+                    close();
+                    return;
+                }
+                try {
+                    if (next == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(next.getId())
+                                .name(next.getType())
+                                .data(next, MediaType.APPLICATION_JSON));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Dropping change feed subscriber: {}", e.getMessage());
+                    detach();
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.todo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.dto.TodoFeedEvent;
+import com.todo.dto.TodoResponse;
+import com.todo.event.TodoChangedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The {@code todo_changes} table: committed todo changes in id order, shared by all instances.
+ * {@link TodoChangeTracker} appends to it in the transaction that makes the changes, and
+ * {@link TodoChangeFeed} reads it to stream them, whichever instance committed them.
+ */
+@Component
+public class TodoChangeLog {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO todo_changes (user_id, type, todo_id, todo, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String SELECT_SQL = "SELECT id, user_id, type, todo_id, todo FROM todo_changes ";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final RowMapper<Entry> entryMapper = (rs, rowNum) -> {
+        long id = rs.getLong("id");
+        String todo = rs.getString("todo");
+        return new Entry(id, rs.getLong("user_id"), new TodoFeedEvent(Long.toString(id), rs.getString("type"),
+                rs.getLong("todo_id"), todo == null ? null : decode(todo)));
+    };
+
+    public TodoChangeLog(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Must run in the transaction that makes the changes.
+     */
+    public void append(Collection<TodoChangedEvent> changes) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, changes, changes.size(), (statement, change) -> {
+            statement.setLong(1, change.userId());
+            statement.setString(2, change.type().name().toLowerCase(Locale.ROOT));
+            statement.setLong(3, change.todoId());
+            statement.setString(4, change.todo() == null ? null : encode(change.todo()));
+            statement.setTimestamp(5, now);
+        });
+    }
+
+    /**
+     * Up to {@code limit} changes of all users with ids above {@code afterId}, in id order.
+     */
+    public List<Entry> readAfter(long afterId, int limit) {
+        return jdbcTemplate.query(SELECT_SQL + "WHERE id > ? ORDER BY id LIMIT ?", entryMapper, afterId, limit);
+    }
+
+    /**
+     * Up to {@code limit} of one user's changes with ids in {@code (afterId, throughId]}, in id order.
+     */
+    public List<Entry> readAfter(Long userId, long afterId, long throughId, int limit) {
+        return jdbcTemplate.query(SELECT_SQL + "WHERE user_id = ? AND id > ? AND id <= ? ORDER BY id LIMIT ?",
+                entryMapper, userId, afterId, throughId, limit);
+    }
+
+    /**
+     * Id of the oldest change still kept, or {@code null} if there is none.
+     */
+    public Long oldestId() {
+        return jdbcTemplate.queryForObject("SELECT MIN(id) FROM todo_changes", Long.class);
+    }
+
+    public long latestId() {
+        Long latest = jdbcTemplate.queryForObject("SELECT MAX(id) FROM todo_changes", Long.class);
+        return latest == null ? 0 : latest;
+    }
+
+    public int deleteBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM todo_changes WHERE created_at < ?", Timestamp.valueOf(cutoff));
+    }
+
+    private String encode(TodoResponse todo) {
+        try {
+            return objectMapper.writeValueAsString(todo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private TodoResponse decode(String todo) {
+        try {
+            return objectMapper.readValue(todo, TodoResponse.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public record Entry(long id, Long userId, TodoFeedEvent event) {
+    }
+}
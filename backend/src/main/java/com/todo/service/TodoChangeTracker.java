@@ -0,0 +1,87 @@
+package com.todo.service;
+
+import com.todo.event.TodoChangedEvent;
+import com.todo.repository.UserRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Records todo changes in the transaction that makes them: bumps the per-user list version in
+ * {@code users.list_version} and appends the changes to the {@link TodoChangeLog}. The version
+ * identifies the state of a user's list, so list ETags and cached lists can be checked with one
+ * primary-key read instead of the list query. Being in the database, both also cover writes
+ * committed by other instances.
+ */
+@Component
+public class TodoChangeTracker {
+
+    private final UserRepository userRepository;
+
+    private final TodoChangeLog changeLog;
+
+    public TodoChangeTracker(UserRepository userRepository, TodoChangeLog changeLog) {
+        this.userRepository = userRepository;
+        this.changeLog = changeLog;
+    }
+
+    /**
+     * Must be read before the list is queried: a change committed in between then only causes
+     * one needless re-download, never a stale 304.
+     */
+    public long listVersion(Long userId) {
+        return userRepository.findListVersionById(userId).orElse(0L);
+    }
+
+    /**
+     * Must run in the transaction that makes the changes.
+     */
+    public void record(Collection<TodoChangedEvent> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Set<Long> users = new LinkedHashSet<>();
+        changes.forEach(change -> users.add(change.userId()));
+        userRepository.incrementListVersions(users);
+        changeLog.append(changes);
+    }
+
+    /**
+     * Collects the changes published by a transaction and records them just before it commits,
+     * which keeps the time between taking change log ids and committing them short. Write-behind
+     * publishes after its own commit and records changes in the transaction that applies the
+     * journal instead.
+     */
+    @EventListener
+    public void onTodoChanged(TodoChangedEvent event) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<TodoChangedEvent> changed = (List<TodoChangedEvent>) TransactionSynchronizationManager.getResource(this);
+        if (changed == null) {
+            List<TodoChangedEvent> changes = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    record(changes);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TodoChangeTracker.this);
+                }
+            });
+            changed = changes;
+        }
+        changed.add(event);
+    }
+}
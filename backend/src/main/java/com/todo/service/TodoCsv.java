@@ -0,0 +1,215 @@
+package com.todo.service;
+
+import com.todo.dto.TodoRequest;
+import com.todo.dto.TodoResponse;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RFC 4180 CSV for todo export and import. Records are read one at a time from the underlying
+ * reader, so an upload of any size is parsed in constant memory; quoted fields may contain
+ * commas, quotes and line breaks. Records longer than the reader's limit are skipped and
+ * reported rather than held in memory.
+ *
+ * <p>Spreadsheets run a cell starting with {@code =}, {@code +}, {@code -}, {@code @}, tab or
+ * carriage return as a formula, so such fields are exported with a {@code '} in front, which
+ * makes them text, and quoted. Import removes that {@code '} again. A field that already starts
+ * with {@code '} before one of those characters gets another one, so any text round-trips.
+ */
+final class TodoCsv {
+
+    static final List<String> COLUMNS = List.of(
+            "id", "title", "description", "completed", "priority", "dueDate", "createdAt", "updatedAt", "version");
+
+    private TodoCsv() {
+    }
+
+    static void writeHeader(Writer out) throws IOException {
+        out.write(String.join(",", COLUMNS));
+        out.write("\r\n");
+    }
+
+    static void write(Writer out, TodoResponse todo) throws IOException {
+        Object[] values = {todo.getId(), todo.getTitle(), todo.getDescription(), todo.getCompleted(),
+                todo.getPriority(), todo.getDueDate(), todo.getCreatedAt(), todo.getUpdatedAt(), todo.getVersion()};
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            if (values[i] != null) {
+                writeField(out, values[i].toString());
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private static void writeField(Writer out, String value) throws IOException {
+        boolean formula = startsFormula(value);
+        boolean quote = formula;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        if (formula) {
+            out.write('\'');
+        }
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    /**
+     * Builds the todo a record describes. Columns are matched by header name; {@code id},
+     * timestamps and {@code version} are assigned anew, so an export can be imported as is.
+     *
+     * @throws IllegalArgumentException if a value cannot be parsed
+     */
+    static TodoRequest toRequest(Map<String, Integer> header, List<String> record) {
+        TodoRequest request = new TodoRequest();
+        request.setTitle(field(header, record, "title"));
+        request.setDescription(field(header, record, "description"));
+        String completed = field(header, record, "completed");
+        if (completed != null) {
+            request.setCompleted(Boolean.parseBoolean(completed));
+        }
+        String priority = field(header, record, "priority");
+        if (priority != null) {
+            request.setPriority(priority);
+        }
+        String dueDate = field(header, record, "dueDate");
+        if (dueDate != null) {
+            try {
+                request.setDueDate(LocalDateTime.parse(dueDate));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("dueDate: not an ISO date-time: " + dueDate);
+            }
+        }
+        return request;
+    }
+
+    // Empty fields read as absent
+    private static String field(Map<String, Integer> header, List<String> record, String column) {
+        Integer index = header.get(column);
+        if (index == null || index >= record.size() || record.get(index).isEmpty()) {
+            return null;
+        }
+        String value = record.get(index);
+        return value.charAt(0) == '\'' && startsFormula(value) ? value.substring(1) : value;
+    }
+
+    // True if a spreadsheet would run the value as a formula, after any leading quotes
+    private static boolean startsFormula(String value) {
+        int i = 0;
+        while (i < value.length() && value.charAt(i) == '\'') {
+            i++;
+        }
+        if (i == value.length()) {
+            return false;
+        }
+        char c = value.charAt(i);
+        return c == '=' || c == '+' || c == '-' || c == '@' || c == '\t' || c == '\r';
+    }
+
+    /**
+     * Reads records one at a time.
+     */
+    static final class RecordReader {
+
+        private final Reader in;
+
+        private final int maxRecordLength;
+
+        private int next = -2;
+
+        RecordReader(Reader in, int maxRecordLength) {
+            this.in = in;
+            this.maxRecordLength = maxRecordLength;
+        }
+
+        /**
+         * @return the next record's fields, or {@code null} at the end of the input
+         * @throws IllegalArgumentException if the record is malformed or longer than the limit;
+         *         a record that is too long has been read past, so the next call reads the one after
+         */
+        List<String> read() throws IOException {
+            int c = peek();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            // Past the limit the record is still parsed to find where it ends, but not kept: only
+            // whether the current field is empty is, as that decides if a quote opens it
+            boolean tooLong = false;
+            int length = 0;
+            while (true) {
+                c = take();
+                if (!tooLong && ++length > maxRecordLength) {
+                    tooLong = true;
+                    fields.clear();
+                    field.setLength(Math.min(field.length(), 1));
+                }
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Unterminated quoted field");
+                    } else if (c == '"' && peek() == '"') {
+                        take();
+                        append(field, '"', tooLong);
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        append(field, c, tooLong);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    if (!tooLong) {
+                        fields.add(field.toString());
+                    }
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r' && peek() == '\n') {
+                        take();
+                    }
+                    if (tooLong) {
+                        throw new IllegalArgumentException("longer than " + maxRecordLength + " characters");
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    append(field, c, tooLong);
+                }
+            }
+        }
+
+        private static void append(StringBuilder field, int c, boolean tooLong) {
+            if (!tooLong || field.isEmpty()) {
+                field.append((char) c);
+            }
+        }
+
+        private int peek() throws IOException {
+            if (next == -2) {
+                next = in.read();
+            }
+            return next;
+        }
+
+        private int take() throws IOException {
+            int c = peek();
+            next = -2;
+            return c;
+        }
+    }
+}
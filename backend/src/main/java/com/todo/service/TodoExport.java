@@ -0,0 +1,46 @@
+package com.todo.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A streamed export holding one of the permits that bound concurrent exports. The permit is
+ * released when the export has been written, or by {@link #abandon()} if it never starts (the
+ * request timed out or failed while the export was still queued).
+ */
+public final class TodoExport implements StreamingResponseBody {
+
+    private final StreamingResponseBody body;
+
+    private final Semaphore permits;
+
+    // Set by whichever of writeTo and abandon comes first; only that one releases the permit
+    private final AtomicBoolean claimed = new AtomicBoolean();
+
+    TodoExport(StreamingResponseBody body, Semaphore permits) {
+        this.body = body;
+        this.permits = permits;
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        if (!claimed.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            body.writeTo(out);
+        } finally {
+            permits.release();
+        }
+    }
+
+    public void abandon() {
+        if (claimed.compareAndSet(false, true)) {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.todo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.todo.dto.TodoPage;
+import com.todo.dto.TodoQuery;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of todo list query results.
+ *
+ * <p>Entries are keyed by the user's list version from {@link TodoChangeTracker}, which callers
+ * must read before loading. Every committed write bumps that version in the database, whichever
+ * instance makes it, so a write invalidates all of the user's cached lists everywhere at once
+ * without scanning the cache; the superseded entries are never read again and age out through
+ * the size and TTL bounds. Concurrent misses on the same key are coalesced into a single load.
+ *
+ * <p>Size is bounded by the total number of cached todos, not the number of lists. Statistics
+ * are published as the {@code todoLists} cache metrics.
+ */
+@Component
+public class TodoListCache {
+
+    private final Cache<Key, TodoPage> cache;
+
+    public TodoListCache(@Value("${todo.list-cache.max-todos:100000}") long maxTodos,
+                         @Value("${todo.list-cache.ttl:5m}") Duration ttl,
+                         MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxTodos)
+                .weigher((Key key, TodoPage page) -> 1 + page.getItems().size())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "todoLists");
+    }
+
+    /**
+     * Returns the cached page for {@code query}, loading it on a miss. Loaded pages must not be
+     * modified afterwards.
+     */
+    public TodoPage get(Long userId, long listVersion, TodoQuery query, Supplier<TodoPage> loader) {
+        return cache.get(new Key(userId, listVersion, query), key -> loader.get());
+    }
+
+    private record Key(Long userId, long listVersion, TodoQuery query) {
+    }
+}
@@ -0,0 +1,310 @@
+package com.todo.service;
+
+import com.todo.dto.TodoResponse;
+import com.todo.event.TodoChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * In-process full-text index over todo titles and descriptions, one per user.
+ *
+ * <p>A user's index is built from the database on their first search and then kept current
+ * from committed {@link TodoChangedEvent}s; changes that commit while it is being built are
+ * queued and applied on top, so nothing is missed. Indexes nobody has searched for a while are
+ * dropped and rebuilt on demand.
+ *
+ * <p>Terms are lower-cased and stripped of accents. Every query term matches indexed terms
+ * that start with it, and a todo must match all query terms. Results are ranked by tf-idf,
+ * with title matches counting double and exact term matches twice as much as prefix matches.
+ */
+@Component
+public class TodoSearchIndex {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final int TITLE_WEIGHT = 2;
+
+    private static final double PREFIX_MATCH_FACTOR = 0.5;
+
+    private final ConcurrentHashMap<Long, UserIndex> indexes = new ConcurrentHashMap<>();
+
+    private final long retentionMillis;
+
+    public TodoSearchIndex(@Value("${todo.search.retention:30m}") Duration retention) {
+        this.retentionMillis = retention.toMillis();
+    }
+
+    /**
+     * Best matches for {@code query}, highest ranked first.
+     *
+     * @param loader all of the user's todos, called if their index has to be built
+     */
+    public List<TodoResponse> search(Long userId, String query, int limit, Supplier<List<TodoResponse>> loader) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        UserIndex index = indexes.computeIfAbsent(userId, id -> new UserIndex());
+        index.ensureBuilt(loader);
+        return index.search(terms, limit);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTodoChanged(TodoChangedEvent change) {
+        // Users without an index pick the change up from the database when one is built
+        UserIndex index = indexes.get(change.userId());
+        if (index != null) {
+            index.apply(change);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${todo.search.eviction-interval:PT5M}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        indexes.entrySet().removeIf(entry -> entry.getValue().lastUsed <= cutoff);
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> terms = new ArrayList<>();
+        for (String term : NON_WORD.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * One user's index. Todos live in dense slots so that scoring works on primitive arrays;
+     * a posting list is the slots containing the term, with its weighted frequency in each.
+     */
+    private static final class UserIndex {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private final Map<Long, Integer> slotsById = new HashMap<>();
+
+        private final List<TodoResponse> todos = new ArrayList<>();
+
+        private final List<Set<String>> termsBySlot = new ArrayList<>();
+
+        private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+
+        private final TreeMap<String, Posting> postings = new TreeMap<>();
+
+        // Changes committed while the index was being loaded; null once built
+        private List<TodoChangedEvent> pending = new ArrayList<>();
+
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        void ensureBuilt(Supplier<List<TodoResponse>> loader) {
+            lastUsed = System.currentTimeMillis();
+            lock.readLock().lock();
+            try {
+                if (pending == null) {
+                    return;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            // Loaded outside the lock, so changes committing meanwhile are queued, not blocked
+            List<TodoResponse> loaded = loader.get();
+            lock.writeLock().lock();
+            try {
+                if (pending == null) {
+                    return;
+                }
+                loaded.forEach(this::put);
+                // Applied in commit order; put() keeps the newer version if the load already had it
+                pending.forEach(this::applyLocked);
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void apply(TodoChangedEvent change) {
+            lock.writeLock().lock();
+            try {
+                if (pending != null) {
+                    pending.add(change);
+                } else {
+                    applyLocked(change);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<TodoResponse> search(List<String> queryTerms, int limit) {
+            lock.readLock().lock();
+            try {
+                int slots = todos.size();
+                double[] total = new double[slots];
+                // Query terms matched so far, per slot: every query term has to match
+                int[] matched = new int[slots];
+                double[] best = new double[slots];
+                for (int q = 0; q < queryTerms.size(); q++) {
+                    String queryTerm = queryTerms.get(q);
+                    Arrays.fill(best, 0);
+                    // Best match per todo among the indexed terms starting with the query term
+                    for (Map.Entry<String, Posting> entry : postings.subMap(queryTerm, queryTerm + Character.MAX_VALUE).entrySet()) {
+                        Posting posting = entry.getValue();
+                        double idf = Math.log(1 + (double) slotsById.size() / posting.size);
+                        double factor = entry.getKey().equals(queryTerm) ? idf : idf * PREFIX_MATCH_FACTOR;
+                        for (int i = 0; i < posting.size; i++) {
+                            best[posting.slots[i]] = Math.max(best[posting.slots[i]], posting.weights[i] * factor);
+                        }
+                    }
+                    for (int slot = 0; slot < slots; slot++) {
+                        if (best[slot] > 0 && matched[slot] == q) {
+                            total[slot] += best[slot];
+                            matched[slot]++;
+                        }
+                    }
+                }
+                return top(total, matched, queryTerms.size(), limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Highest scores first, newest todo first on ties. Kept with an insertion sort over at
+        // most limit slots: most candidates are rejected by one comparison with the last place
+        private List<TodoResponse> top(double[] total, int[] matched, int required, int limit) {
+            int[] top = new int[limit];
+            int count = 0;
+            for (int slot = 0; slot < total.length; slot++) {
+                if (matched[slot] != required || (count == limit && !ranksAbove(slot, top[count - 1], total))) {
+                    continue;
+                }
+                int i = count < limit ? count++ : count - 1;
+                while (i > 0 && ranksAbove(slot, top[i - 1], total)) {
+                    top[i] = top[i - 1];
+                    i--;
+                }
+                top[i] = slot;
+            }
+            TodoResponse[] results = new TodoResponse[count];
+            for (int i = 0; i < count; i++) {
+                results[i] = todos.get(top[i]);
+            }
+            return List.of(results);
+        }
+
+        private boolean ranksAbove(int slot, int other, double[] total) {
+            if (total[slot] != total[other]) {
+                return total[slot] > total[other];
+            }
+            return todos.get(slot).getId() > todos.get(other).getId();
+        }
+
+        private void applyLocked(TodoChangedEvent change) {
+            if (change.type() == TodoChangedEvent.Type.DELETED) {
+                remove(change.todoId());
+            } else {
+                put(change.todo());
+            }
+        }
+
+        private void put(TodoResponse todo) {
+            Integer existing = slotsById.get(todo.getId());
+            if (existing != null) {
+                Long indexedVersion = todos.get(existing).getVersion();
+                if (indexedVersion != null && todo.getVersion() != null && indexedVersion > todo.getVersion()) {
+                    return;
+                }
+                remove(todo.getId());
+            }
+
+            Map<String, Integer> weights = new HashMap<>();
+            tokenize(todo.getTitle()).forEach(term -> weights.merge(term, TITLE_WEIGHT, Integer::sum));
+            tokenize(todo.getDescription()).forEach(term -> weights.merge(term, 1, Integer::sum));
+
+            int slot;
+            if (freeSlots.isEmpty()) {
+                slot = todos.size();
+                todos.add(todo);
+                termsBySlot.add(weights.keySet());
+            } else {
+                slot = freeSlots.pop();
+                todos.set(slot, todo);
+                termsBySlot.set(slot, weights.keySet());
+            }
+            slotsById.put(todo.getId(), slot);
+            weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new Posting()).add(slot, weight));
+        }
+
+        private void remove(Long todoId) {
+            Integer slot = slotsById.remove(todoId);
+            if (slot == null) {
+                return;
+            }
+            for (String term : termsBySlot.get(slot)) {
+                Posting posting = postings.get(term);
+                posting.remove(slot);
+                if (posting.size == 0) {
+                    postings.remove(term);
+                }
+            }
+            todos.set(slot, null);
+            termsBySlot.set(slot, Set.of());
+            freeSlots.push(slot);
+        }
+    }
+
+    private static final class Posting {
+
+        private int[] slots = new int[4];
+
+        private int[] weights = new int[4];
+
+        private int size;
+
+        void add(int slot, int weight) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            slots[size] = slot;
+            weights[size] = weight;
+            size++;
+        }
+
+        void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    size--;
+                    slots[i] = slots[size];
+                    weights[i] = weights[size];
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -1,35 +1,157 @@
 package com.todo.service;
 
+import com.todo.dto.TodoBatchOperation;
+import com.todo.dto.TodoBatchResponse;
+import com.todo.dto.TodoBatchResult;
+import com.todo.dto.TodoCursor;
+import com.todo.dto.TodoImportResponse;
+import com.todo.dto.TodoPage;
+import com.todo.dto.TodoPatch;
+import com.todo.dto.TodoQuery;
 import com.todo.dto.TodoRequest;
 import com.todo.dto.TodoResponse;
+import com.todo.dto.TodoStats;
+import com.todo.dto.TodoTransferFormat;
+import com.todo.event.TodoChangedEvent;
+import com.todo.exception.DomainException;
+import com.todo.exception.PayloadTooLargeException;
+import com.todo.exception.PreconditionFailedException;
+import com.todo.exception.ResourceNotFoundException;
+import com.todo.exception.ServiceBusyException;
 import com.todo.model.Todo;
 import com.todo.model.User;
 import com.todo.repository.TodoRepository;
 import com.todo.repository.UserRepository;
+import com.todo.security.TodoUserPrincipal;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "todo.service", description = "Time spent in TodoService methods", histogram = true)
 public class TodoService {
 
+    // Keeps a bulk delete's IN list within what every database accepts
+    private static final int DELETE_BATCH = 1000;
+
+    // Rows per import transaction; a multiple of hibernate.jdbc.batch_size
+    private static final int IMPORT_BATCH = 500;
+
+    private static final int MAX_IMPORT_ERRORS = 100;
+
     @Autowired
     private TodoRepository todoRepository;
 
     @Autowired
     private UserRepository userRepository;
 
-    private User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TodoChangeTracker changeTracker;
+
+    @Autowired
+    private TodoChangeFeed changeFeed;
+
+    @Autowired
+    private TodoListCache listCache;
+
+    @Autowired
+    private WriteBehindTodoStore writeBehind;
+
+    @Autowired
+    private TodoSearchIndex searchIndex;
+
+    @Autowired
+    private TodoStatsCache statsCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${todo.pagination.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${todo.pagination.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${todo.search.default-limit:20}")
+    private int defaultSearchLimit;
+
+    @Value("${todo.search.max-limit:100}")
+    private int maxSearchLimit;
+
+    private Semaphore exportPermits;
+
+    @Value("${todo.import.max-size:50MB}")
+    private DataSize maxImportSize;
+
+    @Value("${todo.import.max-record-length:65536}")
+    private int maxImportRecordLength;
+
+    @Value("${todo.export.max-concurrent:4}")
+    void setMaxConcurrentExports(int maxConcurrentExports) {
+        this.exportPermits = new Semaphore(maxConcurrentExports);
+    }
+
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof TodoUserPrincipal principal) {
+            return principal.getId();
+        }
+        // Principals not created by the JWT filter do not carry the id
+        return userRepository.findByUsername(authentication.getName())
+                .map(User::getId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
     }
 
-    private TodoResponse convertToResponse(Todo todo) {
+    TodoResponse convertToResponse(Todo todo) {
         return new TodoResponse(
                 todo.getId(),
                 todo.getTitle(),
@@ -38,68 +160,580 @@ public class TodoService {
                 todo.getPriority(),
                 todo.getDueDate(),
                 todo.getCreatedAt(),
-                todo.getUpdatedAt()
+                todo.getUpdatedAt(),
+                todo.getVersion()
         );
     }
 
-    public List<TodoResponse> getAllTodos() {
-        User user = getCurrentUser();
-        return todoRepository.findByUserId(user.getId())
-                .stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    // Reads select straight into TodoResponse; the read-only transaction also switches Hibernate
+    // to FlushMode.MANUAL, so nothing is snapshotted or dirty-checked.
+    // List reads go through the list cache; the version is read before loading so that a write
+    // committing during the load can only make the cached entry newer, never stale.
+    @Transactional(readOnly = true)
+    public TodoPage getTodos(TodoQuery query) {
+        return getTodos(query, changeTracker.listVersion(getCurrentUserId()));
+    }
+
+    /**
+     * @param listVersion the user's list version from {@link #getListVersion()}, read before
+     *        this call; the caller has it already to build the list ETag
+     */
+    @Transactional(readOnly = true)
+    public TodoPage getTodos(TodoQuery query, long listVersion) {
+        Long userId = getCurrentUserId();
+        int limit = resolvePageSize(query.getLimit());
+        TodoCursor after = query.getAfter();
+        if (after != null && (after.sort() != query.getSort() || after.descending() != query.isDescending())) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort order");
+        }
+
+        return listCache.get(userId, listVersion, query, () -> loadPage(userId, query, limit));
+    }
+
+    private TodoPage loadPage(Long userId, TodoQuery query, int limit) {
+        // One extra row tells us whether there is a next page without a count query
+        List<TodoResponse> todos = todoRepository.findPage(userId, query, limit + 1);
+        if (todos.size() <= limit) {
+            return new TodoPage(List.copyOf(todos), null);
+        }
+
+        List<TodoResponse> items = List.copyOf(todos.subList(0, limit));
+        TodoResponse last = items.get(limit - 1);
+        TodoCursor next = new TodoCursor(query.getSort(), query.isDescending(), sortValue(last, query), last.getId());
+        return new TodoPage(items, next.encode());
+    }
+
+    private int resolvePageSize(Integer requested) {
+        if (requested == null) {
+            return defaultPageSize;
+        }
+        if (requested < 1 || requested > maxPageSize) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxPageSize);
+        }
+        return requested;
+    }
+
+    private Object sortValue(TodoResponse todo, TodoQuery query) {
+        return switch (query.getSort()) {
+            case CREATED_AT -> todo.getCreatedAt();
+            case UPDATED_AT -> todo.getUpdatedAt();
+            case DUE_DATE -> todo.getDueDate();
+            case PRIORITY -> Todo.rankOf(todo.getPriority());
+        };
+    }
+
+    /**
+     * Ranked full-text search over the current user's titles and descriptions. Served from
+     * {@link TodoSearchIndex}; the database is only read to build the user's index.
+     */
+    public List<TodoResponse> searchTodos(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("q is required");
+        }
+        if (query.length() > 200) {
+            throw new IllegalArgumentException("q must not exceed 200 characters");
+        }
+        if (limit != null && (limit < 1 || limit > maxSearchLimit)) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxSearchLimit);
+        }
+        Long userId = getCurrentUserId();
+        return searchIndex.search(userId, query, limit != null ? limit : defaultSearchLimit,
+                () -> todoRepository.findResponsesByUserId(userId));
+    }
+
+    /**
+     * Counts over the current user's todos, read from {@link TodoStatsCache} rather than
+     * counted on every request.
+     */
+    public TodoStats getStats() {
+        return statsCache.get(getCurrentUserId());
+    }
+
+    /**
+     * Identifies the current state of the user's todo list without querying it.
+     */
+    public long getListVersion() {
+        return changeTracker.listVersion(getCurrentUserId());
+    }
+
+    /**
+     * Opens a stream of the current user's committed changes, replaying anything after
+     * {@code lastEventId} that is still buffered. The stream ends no later than
+     * {@code tokenExpiration}, when the token that opened it stops being valid.
+     */
+    public SseEmitter subscribeToChanges(String lastEventId, Date tokenExpiration) {
+        return changeFeed.subscribe(getCurrentUserId(), lastEventId, tokenExpiration);
+    }
+
+    @Transactional(readOnly = true)
+    public Long getTodoVersion(Long id) {
+        Long userId = getCurrentUserId();
+        return todoRepository.findVersionByIdAndUserId(id, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Todo not found"));
     }
 
+    @Transactional(readOnly = true)
     public TodoResponse getTodoById(Long id) {
-        User user = getCurrentUser();
-        Todo todo = todoRepository.findByIdAndUserId(id, user.getId())
-                .orElseThrow(() -> new RuntimeException("Todo not found"));
-        return convertToResponse(todo);
+        Long userId = getCurrentUserId();
+        return todoRepository.findResponseByIdAndUserId(id, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Todo not found"));
     }
 
+    @Transactional
     public TodoResponse createTodo(TodoRequest request) {
-        User user = getCurrentUser();
+        Long userId = getCurrentUserId();
+        if (writeBehind.isEnabled()) {
+            // Acknowledged from the journal; the insert and the change event follow
+            return writeBehind.create(userId, request);
+        }
 
         Todo todo = new Todo();
-        todo.setTitle(request.getTitle());
-        todo.setDescription(request.getDescription());
-        todo.setCompleted(request.getCompleted());
-        todo.setPriority(request.getPriority());
-        todo.setDueDate(request.getDueDate());
-        todo.setUser(user);
+        applyRequest(todo, request);
+        // Reference proxy: the insert only needs the foreign key, not a users SELECT
+        todo.setUser(userRepository.getReferenceById(userId));
 
         Todo savedTodo = todoRepository.save(todo);
-        return convertToResponse(savedTodo);
+        TodoResponse response = convertToResponse(savedTodo);
+        eventPublisher.publishEvent(TodoChangedEvent.created(userId, response));
+        return response;
     }
 
-    public TodoResponse updateTodo(Long id, TodoRequest request) {
-        User user = getCurrentUser();
-        Todo todo = todoRepository.findByIdAndUserId(id, user.getId())
-                .orElseThrow(() -> new RuntimeException("Todo not found"));
+    /**
+     * @param expectedVersion the version from an {@code If-Match} header, or {@code null} for an
+     *                        unconditional update
+     */
+    @Transactional
+    public TodoResponse updateTodo(Long id, TodoRequest request, Long expectedVersion) {
+        Long userId = getCurrentUserId();
+        if (writeBehind.isEnabled()) {
+            // Locked so that two updates of the same todo cannot both pass the version check
+            return writeBehind.locked(userId, id, () -> {
+                TodoResponse current = journaledTodo(userId, id);
+                checkVersion(current.getVersion(), expectedVersion);
+                return writeBehind.update(userId, current, request);
+            });
+        }
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("title", request.getTitle());
+        fields.put("description", request.getDescription());
+        fields.put("completed", request.getCompleted());
+        fields.put("priority", request.getPriority());
+        fields.put("dueDate", request.getDueDate());
+        return updateInPlace(userId, id, fields, expectedVersion);
+    }
 
+    /**
+     * Changes only the fields present in {@code patch}, such as {@code completed} alone; fields
+     * present as {@code null} are cleared.
+     *
+     * @param expectedVersion the version from an {@code If-Match} header, or {@code null} for an
+     *                        unconditional update
+     */
+    @Transactional
+    public TodoResponse patchTodo(Long id, TodoPatch patch, Long expectedVersion) {
+        Long userId = getCurrentUserId();
+        if (writeBehind.isEnabled()) {
+            return writeBehind.locked(userId, id, () -> {
+                TodoResponse current = journaledTodo(userId, id);
+                checkVersion(current.getVersion(), expectedVersion);
+                return writeBehind.update(userId, current, merge(current, patch));
+            });
+        }
+        if (patch.isEmpty()) {
+            TodoResponse current = todoRepository.findResponseByIdAndUserId(id, userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Todo not found"));
+            checkVersion(current.getVersion(), expectedVersion);
+            return current;
+        }
+        // A field present as null is cleared; the validated patch only allows that for optional ones
+        Map<String, Object> fields = new LinkedHashMap<>();
+        if (patch.has("title")) {
+            fields.put("title", patch.getTitle());
+        }
+        if (patch.has("description")) {
+            fields.put("description", patch.getDescription());
+        }
+        if (patch.has("completed")) {
+            fields.put("completed", patch.getCompleted());
+        }
+        if (patch.has("priority")) {
+            fields.put("priority", patch.getPriority());
+        }
+        if (patch.has("dueDate")) {
+            fields.put("dueDate", patch.getDueDate());
+        }
+        return updateInPlace(userId, id, fields, expectedVersion);
+    }
+
+    // One conditional UPDATE decides the write: the id, owner and expected version are all in its
+    // WHERE clause, so nothing is read first. The row is read back only to answer and to publish
+    // the change to the caches and the feed.
+    private TodoResponse updateInPlace(Long userId, Long id, Map<String, Object> fields, Long expectedVersion) {
+        if (todoRepository.updateFields(id, userId, fields, expectedVersion, LocalDateTime.now()) == 0) {
+            throw writeRejected(userId, id, expectedVersion);
+        }
+        TodoResponse response = todoRepository.findResponseByIdAndUserId(id, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Todo not found"));
+        eventPublisher.publishEvent(TodoChangedEvent.updated(userId, response));
+        return response;
+    }
+
+    // Only a write that matched no row pays for telling a missing todo from a stale version
+    private DomainException writeRejected(Long userId, Long id, Long expectedVersion) {
+        if (todoRepository.findVersionByIdAndUserId(id, userId).isEmpty()) {
+            return new ResourceNotFoundException("Todo not found");
+        }
+        return new PreconditionFailedException("Todo has been modified since version " + expectedVersion);
+    }
+
+    private TodoResponse journaledTodo(Long userId, Long id) {
+        return writeBehind.journaledState(userId, id)
+                .or(() -> todoRepository.findResponseByIdAndUserId(id, userId))
+                .orElseThrow(() -> new ResourceNotFoundException("Todo not found"));
+    }
+
+    private static TodoRequest merge(TodoResponse current, TodoPatch patch) {
+        TodoRequest request = new TodoRequest();
+        request.setTitle(patch.has("title") ? patch.getTitle() : current.getTitle());
+        request.setDescription(patch.has("description") ? patch.getDescription() : current.getDescription());
+        request.setCompleted(patch.has("completed") ? patch.getCompleted() : current.getCompleted());
+        request.setPriority(patch.has("priority") ? patch.getPriority() : current.getPriority());
+        request.setDueDate(patch.has("dueDate") ? patch.getDueDate() : current.getDueDate());
+        return request;
+    }
+
+    private void checkVersion(Long version, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(version)) {
+            throw new PreconditionFailedException("Todo has been modified since version " + expectedVersion);
+        }
+    }
+
+    private void applyRequest(Todo todo, TodoRequest request) {
         todo.setTitle(request.getTitle());
         todo.setDescription(request.getDescription());
         todo.setCompleted(request.getCompleted());
         todo.setPriority(request.getPriority());
         todo.setDueDate(request.getDueDate());
+    }
 
-        Todo updatedTodo = todoRepository.save(todo);
-        return convertToResponse(updatedTodo);
+    /**
+     * Applies a list of operations in one transaction. Items that fail (unknown id, invalid
+     * payload) are reported in their result and do not affect the others. Inserts, updates and
+     * deletes are flushed once at the end so Hibernate sends them as JDBC batches.
+     */
+    @Transactional
+    public TodoBatchResponse applyBatch(List<TodoBatchOperation> operations) {
+        Long userId = getCurrentUserId();
+
+        // Every todo the batch refers to, loaded with a single query
+        Set<Long> ids = operations.stream()
+                .map(TodoBatchOperation::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Todo> todos = ids.isEmpty() ? new HashMap<>() : todoRepository
+                .findByUserIdAndIdIn(userId, ids)
+                .stream()
+                .collect(Collectors.toMap(Todo::getId, Function.identity()));
+
+        List<Todo> created = new ArrayList<>();
+        List<Todo> deleted = new ArrayList<>();
+        // Results that carry a todo are completed after the flush, once ids and timestamps are assigned
+        Todo[] resultTodos = new Todo[operations.size()];
+        TodoBatchResult[] results = new TodoBatchResult[operations.size()];
+
+        for (int i = 0; i < operations.size(); i++) {
+            TodoBatchOperation operation = operations.get(i);
+            TodoBatchOperation.Type type = operation.getOp();
+            results[i] = new TodoBatchResult(i, type, 0, operation.getId(), null, null);
+
+            if (type != TodoBatchOperation.Type.CREATE) {
+                if (operation.getId() == null) {
+                    fail(results[i], HttpStatus.BAD_REQUEST, "id is required");
+                    continue;
+                }
+                if (!todos.containsKey(operation.getId())) {
+                    fail(results[i], HttpStatus.NOT_FOUND, "Todo not found");
+                    continue;
+                }
+            }
+            if (type == TodoBatchOperation.Type.CREATE || type == TodoBatchOperation.Type.UPDATE) {
+                String error = validate(operation.getTodo());
+                if (error != null) {
+                    fail(results[i], HttpStatus.BAD_REQUEST, error);
+                    continue;
+                }
+            }
+
+            switch (type) {
+                case CREATE -> {
+                    Todo todo = new Todo();
+                    applyRequest(todo, operation.getTodo());
+                    todo.setUser(userRepository.getReferenceById(userId));
+                    created.add(todo);
+                    resultTodos[i] = todo;
+                    results[i].setStatus(HttpStatus.CREATED.value());
+                }
+                case UPDATE -> {
+                    // Managed entity: dirty checking turns this into a batched UPDATE at flush
+                    Todo todo = todos.get(operation.getId());
+                    applyRequest(todo, operation.getTodo());
+                    resultTodos[i] = todo;
+                    results[i].setStatus(HttpStatus.OK.value());
+                }
+                case COMPLETE -> {
+                    Todo todo = todos.get(operation.getId());
+                    todo.setCompleted(true);
+                    resultTodos[i] = todo;
+                    results[i].setStatus(HttpStatus.OK.value());
+                }
+                case DELETE -> {
+                    // Later operations on the same id in this batch see it as gone
+                    deleted.add(todos.remove(operation.getId()));
+                    results[i].setStatus(HttpStatus.NO_CONTENT.value());
+                }
+            }
+        }
+
+        todoRepository.saveAll(created);
+        todoRepository.deleteAll(deleted);
+        todoRepository.flush();
+
+        int failed = 0;
+        for (int i = 0; i < results.length; i++) {
+            if (resultTodos[i] != null) {
+                TodoResponse response = convertToResponse(resultTodos[i]);
+                results[i].setId(response.getId());
+                results[i].setTodo(response);
+                eventPublisher.publishEvent(results[i].getOp() == TodoBatchOperation.Type.CREATE
+                        ? TodoChangedEvent.created(userId, response)
+                        : TodoChangedEvent.updated(userId, response));
+            } else if (results[i].getError() == null) {
+                eventPublisher.publishEvent(TodoChangedEvent.deleted(userId, results[i].getId()));
+            }
+            if (results[i].getError() != null) {
+                failed++;
+            }
+        }
+        return new TodoBatchResponse(results.length - failed, failed, List.of(results));
+    }
+
+    private String validate(TodoRequest request) {
+        if (request == null) {
+            return "todo is required";
+        }
+        Set<ConstraintViolation<TodoRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private void fail(TodoBatchResult result, HttpStatus status, String error) {
+        result.setStatus(status.value());
+        result.setError(error);
     }
 
     @Transactional
-    public void deleteTodo(Long id) {
-        User user = getCurrentUser();
-        Todo todo = todoRepository.findByIdAndUserId(id, user.getId())
-                .orElseThrow(() -> new RuntimeException("Todo not found"));
-        todoRepository.delete(todo);
+    public void deleteTodo(Long id, Long expectedVersion) {
+        Long userId = getCurrentUserId();
+        int deleted = expectedVersion == null
+                ? todoRepository.deleteByIdAndUserId(id, userId)
+                : todoRepository.deleteByIdAndUserIdAndVersion(id, userId, expectedVersion);
+        if (deleted == 0) {
+            throw writeRejected(userId, id, expectedVersion);
+        }
+        eventPublisher.publishEvent(TodoChangedEvent.deleted(userId, id));
     }
 
-    public List<TodoResponse> getTodosByStatus(Boolean completed) {
-        User user = getCurrentUser();
-        return todoRepository.findByUserIdAndCompleted(user.getId(), completed)
-                .stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    /**
+     * Deletes all of the current user's completed (or active) todos with set-based deletes.
+     *
+     * @return the number of todos deleted
+     */
+    @Transactional
+    public int deleteTodosByStatus(Boolean completed) {
+        Long userId = getCurrentUserId();
+        // The ids are read first because each deletion is published. The read locks the rows, so
+        // none of them can change status before it is deleted and every id read is a row deleted
+        List<Long> ids = todoRepository.findIdsByUserIdAndCompleted(userId, completed);
+        int deleted = 0;
+        for (int from = 0; from < ids.size(); from += DELETE_BATCH) {
+            List<Long> batch = ids.subList(from, Math.min(from + DELETE_BATCH, ids.size()));
+            deleted += todoRepository.deleteByUserIdAndIdIn(userId, batch);
+        }
+        ids.forEach(id -> eventPublisher.publishEvent(TodoChangedEvent.deleted(userId, id)));
+        return deleted;
+    }
+
+    /**
+     * Streams all of the current user's todos, in id order, to the response as they are read
+     * from a database cursor. The response is written after the request thread has returned, in
+     * a read-only transaction of its own.
+     *
+     * <p>Each export holds a database connection for as long as it takes to write, so at most
+     * {@code todo.export.max-concurrent} run at once.
+     *
+     * @throws ServiceBusyException if that many exports are already running
+     */
+    public TodoExport exportTodos(TodoTransferFormat format) {
+        Long userId = getCurrentUserId();
+        if (!exportPermits.tryAcquire()) {
+            throw new ServiceBusyException("Too many exports in progress, try again later", 5);
+        }
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return new TodoExport(out -> readOnly.executeWithoutResult(status -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            ObjectWriter json = objectMapper.writerFor(TodoResponse.class);
+            try (Stream<TodoResponse> todos = todoRepository.streamResponsesByUserId(userId)) {
+                if (format == TodoTransferFormat.CSV) {
+                    TodoCsv.writeHeader(writer);
+                }
+                for (TodoResponse todo : (Iterable<TodoResponse>) todos::iterator) {
+                    if (format == TodoTransferFormat.CSV) {
+                        TodoCsv.write(writer, todo);
+                    } else {
+                        writer.write(json.writeValueAsString(todo));
+                        writer.write('\n');
+                    }
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }), exportPermits);
+    }
+
+    /**
+     * Creates todos from an NDJSON or CSV upload, parsed record by record. Valid records are
+     * inserted in transactions of {@value #IMPORT_BATCH}; the next batch is only read once the
+     * previous one is written, so a fast client is held back by the database rather than
+     * buffered. Invalid records, and records longer than {@code todo.import.max-record-length}
+     * characters, are skipped and reported; batches already written stay written if a later one
+     * fails, including when the upload turns out to be larger than {@code todo.import.max-size}.
+     *
+     * @param contentLength the declared length of the upload, or -1 if unknown
+     */
+    public TodoImportResponse importTodos(InputStream in, long contentLength, TodoTransferFormat format)
+            throws IOException {
+        if (contentLength > maxImportSize.toBytes()) {
+            throw new PayloadTooLargeException("Uploads are limited to " + maxImportSize);
+        }
+        Long userId = getCurrentUserId();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new SizeLimitedInputStream(in, maxImportSize), StandardCharsets.UTF_8));
+        ObjectReader json = objectMapper.readerFor(TodoRequest.class);
+        TodoCsv.RecordReader csv = new TodoCsv.RecordReader(reader, maxImportRecordLength);
+        Map<String, Integer> header = new HashMap<>();
+        if (format == TodoTransferFormat.CSV) {
+            List<String> columns = csv.read();
+            for (int i = 0; columns != null && i < columns.size(); i++) {
+                header.put(columns.get(i).trim(), i);
+            }
+        }
+
+        List<TodoRequest> batch = new ArrayList<>(IMPORT_BATCH);
+        List<String> errors = new ArrayList<>();
+        long imported = 0;
+        long failed = 0;
+        for (long record = 1; ; record++) {
+            TodoRequest request = null;
+            String error;
+            try {
+                if (format == TodoTransferFormat.CSV) {
+                    List<String> fields = csv.read();
+                    if (fields == null) {
+                        break;
+                    }
+                    if (fields.size() == 1 && fields.get(0).isBlank()) {
+                        continue;
+                    }
+                    request = TodoCsv.toRequest(header, fields);
+                } else {
+                    String line = readLine(reader);
+                    if (line == null) {
+                        break;
+                    }
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    request = json.readValue(line);
+                }
+                error = validate(request);
+            } catch (JsonProcessingException e) {
+                error = "not a valid todo: " + e.getOriginalMessage();
+            } catch (IllegalArgumentException e) {
+                error = e.getMessage();
+            }
+
+            if (error != null) {
+                failed++;
+                if (errors.size() < MAX_IMPORT_ERRORS) {
+                    errors.add("record " + record + ": " + error);
+                }
+                continue;
+            }
+            batch.add(request);
+            if (batch.size() == IMPORT_BATCH) {
+                imported += insertBatch(transaction, userId, batch);
+                batch.clear();
+            }
+        }
+        imported += insertBatch(transaction, userId, batch);
+        return new TodoImportResponse(imported, failed, errors);
+    }
+
+    /**
+     * Like {@link BufferedReader#readLine()}, but a line longer than
+     * {@code todo.import.max-record-length} is read past rather than held, and reported.
+     */
+    private String readLine(BufferedReader reader) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        boolean tooLong = false;
+        for (; c != -1 && c != '\n'; c = reader.read()) {
+            if (tooLong) {
+                continue;
+            }
+            if (line.length() == maxImportRecordLength) {
+                tooLong = true;
+                line.setLength(0);
+            } else {
+                line.append((char) c);
+            }
+        }
+        if (tooLong) {
+            throw new IllegalArgumentException("longer than " + maxImportRecordLength + " characters");
+        }
+        int end = line.length();
+        return end > 0 && line.charAt(end - 1) == '\r' ? line.substring(0, end - 1) : line.toString();
+    }
+
+    private int insertBatch(TransactionTemplate transaction, Long userId, List<TodoRequest> requests) {
+        if (requests.isEmpty()) {
+            return 0;
+        }
+        transaction.executeWithoutResult(status -> {
+            List<Todo> todos = new ArrayList<>(requests.size());
+            for (TodoRequest request : requests) {
+                Todo todo = new Todo();
+                applyRequest(todo, request);
+                todo.setUser(userRepository.getReferenceById(userId));
+                todos.add(todo);
+            }
+            // Sent as JDBC batches at commit; the persistence context ends with the transaction
+            todoRepository.saveAll(todos);
+            for (Todo todo : todos) {
+                eventPublisher.publishEvent(TodoChangedEvent.created(userId, convertToResponse(todo)));
+            }
+        });
+        return requests.size();
     }
 }
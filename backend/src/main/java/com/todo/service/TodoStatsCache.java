@@ -0,0 +1,282 @@
+package com.todo.service;
+
+import com.todo.dto.TodoCountRow;
+import com.todo.dto.TodoResponse;
+import com.todo.dto.TodoStats;
+import com.todo.event.TodoChangedEvent;
+import com.todo.repository.TodoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-user todo counts, kept in memory so that reading them does not scan the user's todos.
+ *
+ * <p>A user's counts are built from the database on their first read and then updated from
+ * committed {@link TodoChangedEvent}s, the same way as {@link TodoSearchIndex}. Todos only
+ * become overdue with the passage of time, so active todos with a future due date wait in a
+ * heap ordered by due date and are moved to the overdue count when a read finds them due.
+ *
+ * <p>Counts are periodically compared with SQL aggregates for the users currently cached. A
+ * user whose counts drifted (a change made outside the application, say) is dropped and
+ * rebuilt on their next read; drifts are counted in the {@code todo.stats.drift} metric.
+ */
+@Component
+public class TodoStatsCache {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoStatsCache.class);
+
+    private static final List<String> PRIORITIES = List.of("LOW", "MEDIUM", "HIGH");
+
+    // Keeps the reconciliation query's IN list within what every database accepts
+    private static final int RECONCILE_BATCH = 500;
+
+    private final ConcurrentHashMap<Long, UserStats> stats = new ConcurrentHashMap<>();
+
+    private final TodoRepository todoRepository;
+
+    private final long retentionMillis;
+
+    private final Counter drift;
+
+    public TodoStatsCache(TodoRepository todoRepository,
+                          @Value("${todo.stats.retention:30m}") Duration retention,
+                          MeterRegistry meterRegistry) {
+        this.todoRepository = todoRepository;
+        this.retentionMillis = retention.toMillis();
+        this.drift = Counter.builder("todo.stats.drift")
+                .description("Cached todo stats found to differ from the database")
+                .register(meterRegistry);
+    }
+
+    public TodoStats get(Long userId) {
+        UserStats user = stats.computeIfAbsent(userId, id -> new UserStats());
+        user.ensureBuilt(() -> todoRepository.findResponsesByUserId(userId));
+        return user.snapshot(LocalDateTime.now());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTodoChanged(TodoChangedEvent change) {
+        // Users without cached counts pick the change up from the database when they are built
+        UserStats user = stats.get(change.userId());
+        if (user != null) {
+            user.apply(change);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${todo.stats.reconcile-interval:PT10M}")
+    public void reconcile() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        stats.entrySet().removeIf(entry -> entry.getValue().lastUsed <= cutoff);
+
+        List<Long> userIds = stats.entrySet().stream()
+                .filter(entry -> entry.getValue().isBuilt())
+                .map(Map.Entry::getKey)
+                .toList();
+        for (int from = 0; from < userIds.size(); from += RECONCILE_BATCH) {
+            List<Long> batch = userIds.subList(from, Math.min(from + RECONCILE_BATCH, userIds.size()));
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, TodoStats> expected = new HashMap<>();
+            for (TodoCountRow row : todoRepository.countByUserIds(batch, now)) {
+                TodoStats counts = expected.computeIfAbsent(row.userId(), id -> emptyStats());
+                counts.setTotal(counts.getTotal() + row.todos());
+                if (Boolean.TRUE.equals(row.completed())) {
+                    counts.setCompleted(counts.getCompleted() + row.todos());
+                }
+                counts.setOverdue(counts.getOverdue() + row.overdue());
+                counts.getByPriority().merge(row.priority(), row.todos(), Long::sum);
+            }
+            for (Long userId : batch) {
+                TodoStats database = expected.getOrDefault(userId, emptyStats());
+                database.setActive(database.getTotal() - database.getCompleted());
+                UserStats user = stats.get(userId);
+                if (user == null) {
+                    continue;
+                }
+                TodoStats cached = user.snapshot(now);
+                if (!cached.equals(database)) {
+                    // A change committing between the query and the snapshot looks like drift
+                    // too; rebuilding is cheap enough that telling the two apart is not worth it
+                    log.warn("Todo stats for user {} drifted from the database ({} cached, {} stored); rebuilding",
+                            userId, cached, database);
+                    drift.increment();
+                    stats.remove(userId, user);
+                }
+            }
+        }
+    }
+
+    private static TodoStats emptyStats() {
+        Map<String, Long> byPriority = new LinkedHashMap<>();
+        PRIORITIES.forEach(priority -> byPriority.put(priority, 0L));
+        return new TodoStats(0, 0, 0, 0, byPriority);
+    }
+
+    /**
+     * One user's counts, plus what they were derived from for each todo: deletions carry no
+     * todo, and updates need the previous state to be undone.
+     */
+    private static final class UserStats {
+
+        private final Map<Long, Counted> todos = new HashMap<>();
+
+        private final Map<String, Long> byPriority = new HashMap<>();
+
+        // Active todos not yet overdue, earliest due first. Entries whose todo has since changed
+        // are left in place and skipped when they come up
+        private final PriorityQueue<Due> upcoming = new PriorityQueue<>(Comparator.comparing(Due::at));
+
+        private long completed;
+
+        private long overdue;
+
+        // Changes committed while the counts were being loaded; null once built
+        private List<TodoChangedEvent> pending = new ArrayList<>();
+
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        void ensureBuilt(Supplier<List<TodoResponse>> loader) {
+            lastUsed = System.currentTimeMillis();
+            if (isBuilt()) {
+                return;
+            }
+            // Loaded outside the lock, so changes committing meanwhile are queued, not blocked
+            List<TodoResponse> loaded = loader.get();
+            LocalDateTime now = LocalDateTime.now();
+            synchronized (this) {
+                if (pending == null) {
+                    return;
+                }
+                loaded.forEach(todo -> put(todo, now));
+                // Applied in commit order; put() keeps the newer version if the load already had it
+                pending.forEach(change -> applyLocked(change, now));
+                pending = null;
+            }
+        }
+
+        synchronized boolean isBuilt() {
+            return pending == null;
+        }
+
+        synchronized void apply(TodoChangedEvent change) {
+            if (pending != null) {
+                pending.add(change);
+            } else {
+                applyLocked(change, LocalDateTime.now());
+            }
+        }
+
+        synchronized TodoStats snapshot(LocalDateTime now) {
+            Due next;
+            while ((next = upcoming.peek()) != null && next.at().isBefore(now)) {
+                upcoming.poll();
+                if (todos.get(next.todoId()) == next.counted()) {
+                    next.counted().overdue = true;
+                    overdue++;
+                }
+            }
+            TodoStats snapshot = emptyStats();
+            snapshot.setTotal(todos.size());
+            snapshot.setCompleted(completed);
+            snapshot.setActive(todos.size() - completed);
+            snapshot.setOverdue(overdue);
+            byPriority.forEach(snapshot.getByPriority()::put);
+            return snapshot;
+        }
+
+        private void applyLocked(TodoChangedEvent change, LocalDateTime now) {
+            if (change.type() == TodoChangedEvent.Type.DELETED) {
+                remove(change.todoId());
+            } else {
+                put(change.todo(), now);
+            }
+        }
+
+        private void put(TodoResponse todo, LocalDateTime now) {
+            Counted existing = todos.get(todo.getId());
+            if (existing != null) {
+                if (existing.version != null && todo.getVersion() != null && existing.version > todo.getVersion()) {
+                    return;
+                }
+                remove(todo.getId());
+            }
+
+            Counted counted = new Counted(Boolean.TRUE.equals(todo.getCompleted()),
+                    Objects.requireNonNullElse(todo.getPriority(), "MEDIUM"), todo.getVersion());
+            todos.put(todo.getId(), counted);
+            byPriority.merge(counted.priority, 1L, Long::sum);
+            if (counted.completed) {
+                completed++;
+            } else if (todo.getDueDate() != null) {
+                if (todo.getDueDate().isBefore(now)) {
+                    counted.overdue = true;
+                    overdue++;
+                } else {
+                    upcoming.add(new Due(todo.getDueDate(), todo.getId(), counted));
+                    compactIfStale();
+                }
+            }
+        }
+
+        private void remove(Long todoId) {
+            Counted counted = todos.remove(todoId);
+            if (counted == null) {
+                return;
+            }
+            byPriority.merge(counted.priority, -1L, (count, delta) -> count + delta == 0 ? null : count + delta);
+            if (counted.completed) {
+                completed--;
+            }
+            if (counted.overdue) {
+                overdue--;
+            }
+        }
+
+        // Superseded heap entries are otherwise only dropped once their due date passes, which
+        // for far-future dates is never
+        private void compactIfStale() {
+            if (upcoming.size() > 2 * todos.size() + 16) {
+                upcoming.removeIf(due -> todos.get(due.todoId()) != due.counted());
+            }
+        }
+    }
+
+    private static final class Counted {
+
+        private final boolean completed;
+
+        private final String priority;
+
+        private final Long version;
+
+        private boolean overdue;
+
+        Counted(boolean completed, String priority, Long version) {
+            this.completed = completed;
+            this.priority = priority;
+            this.version = version;
+        }
+    }
+
+    private record Due(LocalDateTime at, Long todoId, Counted counted) {
+    }
+}
@@ -0,0 +1,609 @@
+package com.todo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.dto.TodoRequest;
+import com.todo.dto.TodoResponse;
+import com.todo.event.TodoChangedEvent;
+import com.todo.exception.ServiceBusyException;
+import com.todo.model.Todo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Optional write-behind path for todo creates and updates ({@code todo.write-behind.enabled}).
+ *
+ * <p>A mutation is acknowledged as soon as it is fsynced to a local {@link AppendOnlyJournal}
+ * (group commit every {@code commit-interval}). One applier thread writes journaled mutations to
+ * the database in JDBC batches, one transaction per batch, and stores the last applied sequence
+ * in {@code journal_checkpoint} within the same transaction. At startup the journal is replayed
+ * from that checkpoint before any request is served, so every acknowledged mutation is applied
+ * exactly once, also after a crash.
+ *
+ * <p>{@link TodoChangedEvent}s are published once a mutation is in the database, so list
+ * versions, caches and the change feed keep following the database. Until then, a user's reads
+ * wait in {@link #awaitApplied}, and updates start from the newest journaled state of the todo
+ * ({@link #journaledState}).
+ *
+ * <p>Writes that go straight to the database (deletes, batches, imports) run between
+ * {@link #beginDirectWrite} and {@link #endDirectWrite}, which hold off the user's journaled
+ * writes. As a last line of defence, a journaled update only applies to the version it was based
+ * on; one that finds the row changed or deleted is discarded without an event, and counted in
+ * {@code todo.write-behind.discarded}.
+ *
+ * <p>Meant for the persistent profile: the in-memory database has nothing to replay into.
+ */
+@Component
+public class WriteBehindTodoStore implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindTodoStore.class);
+
+    private static final String CHECKPOINT_NAME = "todos";
+
+    private static final String INSERT_SQL = "INSERT INTO todos (id, title, description, completed, priority, "
+            + "priority_rank, due_date, version, user_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL = "UPDATE todos SET title = ?, description = ?, completed = ?, priority = ?, "
+            + "priority_rank = ?, due_date = ?, version = ?, updated_at = ? WHERE id = ? AND user_id = ? AND version = ?";
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final boolean enabled;
+
+    private final Path journalPath;
+
+    private final Duration commitInterval;
+
+    private final int maxBatch;
+
+    private final long maxJournalBytes;
+
+    private final long ackTimeoutMillis;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TodoChangeTracker changeTracker;
+
+    private final MeterRegistry meterRegistry;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    private final IdentifierGenerator todoIdGenerator;
+
+    // j.u.c. locks rather than monitors throughout: holders block on the journal fsync and on
+    // JDBC, which would pin the carrier thread of a virtual thread inside synchronized
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    // By user: journaled writes share them, writes that bypass the journal take them exclusively
+    private final ReentrantReadWriteLock[] userLocks = new ReentrantReadWriteLock[LOCK_STRIPES];
+
+    // Journaled but not yet applied: the newest state per todo, and the last sequence per user
+    private final ConcurrentHashMap<Long, TodoChangedEvent> journaled = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<Long, Long> lastSeqByUser = new ConcurrentHashMap<>();
+
+    private final LinkedBlockingQueue<AppendOnlyJournal.Record<TodoChangedEvent>> applyQueue = new LinkedBlockingQueue<>();
+
+    private final ReentrantLock appliedLock = new ReentrantLock();
+
+    private final Condition applied = appliedLock.newCondition();
+
+    private volatile long appliedSeq;
+
+    private volatile long durableSeq;
+
+    private volatile boolean stopping;
+
+    private AppendOnlyJournal<TodoChangedEvent> journal;
+
+    private Thread applier;
+
+    private Timer applyTimer;
+
+    private Counter discarded;
+
+    public WriteBehindTodoStore(@Value("${todo.write-behind.enabled:false}") boolean enabled,
+                                @Value("${todo.write-behind.journal-path:./data/todo-journal.log}") Path journalPath,
+                                @Value("${todo.write-behind.commit-interval:2ms}") Duration commitInterval,
+                                @Value("${todo.write-behind.max-batch:500}") int maxBatch,
+                                @Value("${todo.write-behind.max-journal-size:64MB}") DataSize maxJournalSize,
+                                @Value("${todo.write-behind.ack-timeout:5s}") Duration ackTimeout,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                EntityManagerFactory entityManagerFactory,
+                                ObjectMapper objectMapper,
+                                ApplicationEventPublisher eventPublisher,
+                                TodoChangeTracker changeTracker,
+                                MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.journalPath = journalPath;
+        this.commitInterval = commitInterval;
+        this.maxBatch = maxBatch;
+        this.maxJournalBytes = maxJournalSize.toBytes();
+        this.ackTimeoutMillis = ackTimeout.toMillis();
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.changeTracker = changeTracker;
+        this.meterRegistry = meterRegistry;
+        this.entityManagerFactory = entityManagerFactory;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.todoIdGenerator = (IdentifierGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(Todo.class).getGenerator();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+            userLocks[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Replays the journal before the web server starts taking requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        appliedSeq = transactionTemplate.execute(status -> {
+            List<Long> checkpoint = jdbcTemplate.queryForList(
+                    "SELECT applied_seq FROM journal_checkpoint WHERE name = ?", Long.class, CHECKPOINT_NAME);
+            if (checkpoint.isEmpty()) {
+                jdbcTemplate.update("INSERT INTO journal_checkpoint (name, applied_seq) VALUES (?, 0)", CHECKPOINT_NAME);
+                return 0L;
+            }
+            return checkpoint.get(0);
+        });
+        durableSeq = appliedSeq;
+
+        applyTimer = Timer.builder("todo.write-behind.apply")
+                .description("Time to apply one batch of journaled mutations to the database")
+                .register(meterRegistry);
+        discarded = Counter.builder("todo.write-behind.discarded")
+                .description("Journaled updates dropped because the todo was changed or deleted directly")
+                .register(meterRegistry);
+        Gauge.builder("todo.write-behind.pending", this, store -> store.durableSeq - store.appliedSeq)
+                .description("Acknowledged mutations not yet applied to the database")
+                .register(meterRegistry);
+        try {
+            journal = new AppendOnlyJournal<>(journalPath, appliedSeq, this::encode, this::decode, this::onDurable,
+                    commitInterval, maxJournalBytes, Timer.builder("todo.write-behind.fsync")
+                    .description("Journal group commit fsync time")
+                    .register(meterRegistry));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open journal " + journalPath, e);
+        }
+
+        List<AppendOnlyJournal.Record<TodoChangedEvent>> recovered = journal.recovered();
+        for (int from = 0; from < recovered.size(); from += maxBatch) {
+            applyWithRetry(new ArrayList<>(recovered.subList(from, Math.min(recovered.size(), from + maxBatch))));
+        }
+        if (!recovered.isEmpty()) {
+            log.info("Replayed {} journaled todo mutations from {}", recovered.size(), journalPath);
+        }
+
+        applier = new Thread(this::applyLoop, "todo-write-behind-applier");
+        applier.setDaemon(true);
+        applier.start();
+    }
+
+    /**
+     * Journals a new todo and returns it once the journal entry is durable.
+     */
+    public TodoResponse create(Long userId, TodoRequest request) {
+        requireComplete(request);
+        Lock shared = userLock(userId).readLock();
+        shared.lock();
+        try {
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            TodoResponse todo = new TodoResponse(nextTodoId(), request.getTitle(), request.getDescription(),
+                    request.getCompleted(), request.getPriority(), request.getDueDate(), now, now, 0L);
+            return append(TodoChangedEvent.created(userId, todo));
+        } finally {
+            shared.unlock();
+        }
+    }
+
+    /**
+     * Journals {@code request} applied to {@code current} and returns the new state once the
+     * journal entry is durable. Callers hold {@link #locked} for the todo.
+     */
+    public TodoResponse update(Long userId, TodoResponse current, TodoRequest request) {
+        requireComplete(request);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        TodoResponse todo = new TodoResponse(current.getId(), request.getTitle(), request.getDescription(),
+                request.getCompleted(), request.getPriority(), request.getDueDate(), current.getCreatedAt(), now,
+                current.getVersion() + 1);
+        return append(TodoChangedEvent.updated(userId, todo));
+    }
+
+    /**
+     * The newest journaled state of a todo that has not reached the database yet.
+     */
+    public Optional<TodoResponse> journaledState(Long userId, Long todoId) {
+        TodoChangedEvent change = journaled.get(todoId);
+        return change != null && change.userId().equals(userId) ? Optional.of(change.todo()) : Optional.empty();
+    }
+
+    /**
+     * Runs {@code action} while no other thread reads or journals the same todo through here,
+     * and no direct write of the user is in progress.
+     */
+    public <T> T locked(Long userId, Long todoId, Supplier<T> action) {
+        Lock shared = userLock(userId).readLock();
+        shared.lock();
+        ReentrantLock todoLock = locks[Math.floorMod(todoId.hashCode(), LOCK_STRIPES)];
+        try {
+            todoLock.lock();
+            try {
+                return action.get();
+            } finally {
+                todoLock.unlock();
+            }
+        } finally {
+            shared.unlock();
+        }
+    }
+
+    /**
+     * Waits until the user's acknowledged mutations are in the database, then holds off their
+     * journaled writes until {@link #endDirectWrite}, so a write that bypasses the journal
+     * neither races an update based on the state it changes nor is overwritten by one applied
+     * after it. Call from the request thread, before its transaction starts, and end once it
+     * has committed.
+     */
+    public void beginDirectWrite(Long userId) {
+        Lock exclusive = userLock(userId).writeLock();
+        exclusive.lock();
+        try {
+            awaitApplied(userId);
+        } catch (RuntimeException e) {
+            exclusive.unlock();
+            throw e;
+        }
+    }
+
+    public void endDirectWrite(Long userId) {
+        userLock(userId).writeLock().unlock();
+    }
+
+    private ReentrantReadWriteLock userLock(Long userId) {
+        return userLocks[Math.floorMod(userId.hashCode(), LOCK_STRIPES)];
+    }
+
+    /**
+     * Blocks until every mutation the user has had acknowledged is in the database.
+     */
+    public void awaitApplied(Long userId) {
+        Long seq = lastSeqByUser.get(userId);
+        if (seq == null || appliedSeq >= seq) {
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ackTimeoutMillis);
+        appliedLock.lock();
+        try {
+            while (appliedSeq < seq) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new ServiceBusyException("Recent changes are still being saved", 1);
+                }
+                applied.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for recent changes", e);
+        } finally {
+            appliedLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException, InterruptedException {
+        if (journal == null) {
+            return;
+        }
+        journal.close();
+        // The applier drains what is durable; anything it cannot apply is replayed at the next start
+        stopping = true;
+        applier.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void requireComplete(TodoRequest request) {
+        // Rejected up front: once acknowledged, the row has to be insertable
+        if (request.getCompleted() == null || request.getPriority() == null) {
+            throw new IllegalArgumentException("completed and priority must not be null");
+        }
+    }
+
+    // Todo.id's own pooled generator, so journaled creates and Hibernate's inserts take ids from
+    // the same blocks. Runs on the caller's session when it has a transaction, so refilling a
+    // block never needs a second connection
+    private long nextTodoId() {
+        EntityManager current = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        if (current != null) {
+            return (Long) todoIdGenerator.generate(current.unwrap(SharedSessionContractImplementor.class), null);
+        }
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            return (Long) todoIdGenerator.generate((SharedSessionContractImplementor) session, null);
+        }
+    }
+
+    private TodoResponse append(TodoChangedEvent change) {
+        // Visible to updates before it is durable, so the applier can never miss removing it
+        journaled.put(change.todoId(), change);
+        CompletableFuture<Long> written = journal.append(change);
+        written.whenComplete((seq, error) -> {
+            if (error != null) {
+                journaled.remove(change.todoId(), change);
+            }
+        });
+        try {
+            written.get(ackTimeoutMillis, TimeUnit.MILLISECONDS);
+            return change.todo();
+        } catch (ExecutionException e) {
+            throw new ServiceBusyException("Could not save the change, try again", 1);
+        } catch (TimeoutException e) {
+            // Outcome unknown: it may still become durable and be applied
+            throw new ServiceBusyException("Saving the change is taking too long", 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while saving the change", e);
+        }
+    }
+
+    private void onDurable(List<AppendOnlyJournal.Record<TodoChangedEvent>> records) {
+        for (AppendOnlyJournal.Record<TodoChangedEvent> record : records) {
+            lastSeqByUser.merge(record.value().userId(), record.seq(), Math::max);
+        }
+        durableSeq = records.get(records.size() - 1).seq();
+        applyQueue.addAll(records);
+    }
+
+    private void applyLoop() {
+        List<AppendOnlyJournal.Record<TodoChangedEvent>> batch = new ArrayList<>(maxBatch);
+        while (!stopping || !applyQueue.isEmpty()) {
+            AppendOnlyJournal.Record<TodoChangedEvent> first;
+            try {
+                first = applyQueue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            applyQueue.drainTo(batch, maxBatch - 1);
+            if (!applyWithRetry(batch)) {
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Applies {@code batch} in one transaction, retrying while the database is unavailable.
+     * A mutation the database rejects outright (for example, its user has been deleted) is
+     * logged and skipped rather than holding back everything after it.
+     *
+     * @return {@code false} if the store is stopping and the batch was left for replay
+     */
+    private boolean applyWithRetry(List<AppendOnlyJournal.Record<TodoChangedEvent>> batch) {
+        long backoffMillis = 100;
+        while (true) {
+            try {
+                apply(batch, batch);
+                return true;
+            } catch (DataIntegrityViolationException e) {
+                if (batch.size() > 1) {
+                    for (AppendOnlyJournal.Record<TodoChangedEvent> record : batch) {
+                        if (!applyWithRetry(List.of(record))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+                log.error("Skipping journaled {} of todo {} (sequence {}): {}", batch.get(0).value().type(),
+                        batch.get(0).value().todoId(), batch.get(0).seq(), e.getMostSpecificCause().getMessage());
+                return skip(batch);
+            } catch (RuntimeException e) {
+                if (stopping) {
+                    return false;
+                }
+                log.warn("Applying {} journaled todo mutations failed, retrying in {} ms", batch.size(), backoffMillis, e);
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    return false;
+                }
+                backoffMillis = Math.min(backoffMillis * 2, 5000);
+            }
+        }
+    }
+
+    private boolean skip(List<AppendOnlyJournal.Record<TodoChangedEvent>> batch) {
+        while (true) {
+            try {
+                apply(List.of(), batch);
+                return true;
+            } catch (RuntimeException e) {
+                if (stopping) {
+                    return false;
+                }
+                log.warn("Recording journal checkpoint failed, retrying", e);
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException interrupted) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes {@code mutations} and moves the checkpoint past {@code batch} in one transaction,
+     * then publishes the changes and releases readers waiting for them.
+     */
+    private void apply(List<AppendOnlyJournal.Record<TodoChangedEvent>> mutations,
+                       List<AppendOnlyJournal.Record<TodoChangedEvent>> batch) {
+        List<TodoChangedEvent> creates = new ArrayList<>();
+        List<TodoChangedEvent> updates = new ArrayList<>();
+        for (AppendOnlyJournal.Record<TodoChangedEvent> record : mutations) {
+            (record.value().type() == TodoChangedEvent.Type.CREATED ? creates : updates).add(record.value());
+        }
+        long throughSeq = batch.get(batch.size() - 1).seq();
+        List<TodoChangedEvent> stale = new ArrayList<>();
+
+        applyTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+            stale.clear();
+            // Inserts first: an update in the same batch may be for a todo created in it
+            jdbcTemplate.batchUpdate(INSERT_SQL, creates, creates.size(), (statement, change) -> {
+                TodoResponse todo = change.todo();
+                statement.setLong(1, todo.getId());
+                statement.setString(2, todo.getTitle());
+                statement.setString(3, todo.getDescription());
+                statement.setBoolean(4, todo.getCompleted());
+                statement.setString(5, todo.getPriority());
+                statement.setInt(6, Todo.rankOf(todo.getPriority()));
+                statement.setTimestamp(7, toTimestamp(todo.getDueDate()));
+                statement.setLong(8, todo.getVersion());
+                statement.setLong(9, change.userId());
+                statement.setTimestamp(10, toTimestamp(todo.getCreatedAt()));
+                statement.setTimestamp(11, toTimestamp(todo.getUpdatedAt()));
+            });
+            // Updates carry the whole new state, so applying them in sequence order leaves the newest.
+            // Each expects the version it was based on, so one that matches no row lost to a direct
+            // write (and so does every later update of that todo)
+            int[][] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, updates, updates.size(), (statement, change) -> {
+                TodoResponse todo = change.todo();
+                statement.setString(1, todo.getTitle());
+                statement.setString(2, todo.getDescription());
+                statement.setBoolean(3, todo.getCompleted());
+                statement.setString(4, todo.getPriority());
+                statement.setInt(5, Todo.rankOf(todo.getPriority()));
+                statement.setTimestamp(6, toTimestamp(todo.getDueDate()));
+                statement.setLong(7, todo.getVersion());
+                statement.setTimestamp(8, toTimestamp(todo.getUpdatedAt()));
+                statement.setLong(9, todo.getId());
+                statement.setLong(10, change.userId());
+                statement.setLong(11, todo.getVersion() - 1);
+            });
+            int index = 0;
+            for (int[] counts : updated) {
+                for (int count : counts) {
+                    if (count == 0) {
+                        stale.add(updates.get(index));
+                    }
+                    index++;
+                }
+            }
+            // The changes are published after this commit, too late for TodoChangeTracker to pick
+            // them up, so they are recorded here
+            List<TodoChangedEvent> changes = new ArrayList<>();
+            for (AppendOnlyJournal.Record<TodoChangedEvent> record : mutations) {
+                if (!stale.contains(record.value())) {
+                    changes.add(record.value());
+                }
+            }
+            changeTracker.record(changes);
+            jdbcTemplate.update("UPDATE journal_checkpoint SET applied_seq = ? WHERE name = ?", throughSeq, CHECKPOINT_NAME);
+        }));
+
+        journal.checkpoint(throughSeq);
+        for (TodoChangedEvent change : stale) {
+            log.warn("Discarded journaled update of todo {} to version {}: it was changed or deleted directly",
+                    change.todoId(), change.todo().getVersion());
+            discarded.increment();
+        }
+        for (AppendOnlyJournal.Record<TodoChangedEvent> record : mutations) {
+            if (!stale.contains(record.value())) {
+                eventPublisher.publishEvent(record.value());
+            }
+        }
+        for (AppendOnlyJournal.Record<TodoChangedEvent> record : batch) {
+            journaled.remove(record.value().todoId(), record.value());
+            lastSeqByUser.remove(record.value().userId(), record.seq());
+        }
+        // Published before waiters are released, so their reads see the new list version
+        appliedLock.lock();
+        try {
+            appliedSeq = throughSeq;
+            applied.signalAll();
+        } finally {
+            appliedLock.unlock();
+        }
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value == null ? null : Timestamp.valueOf(value);
+    }
+
+    private byte[] encode(TodoChangedEvent change) {
+        try {
+            return objectMapper.writeValueAsBytes(change);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private TodoChangedEvent decode(byte[] payload) {
+        try {
+            return objectMapper.readValue(payload, TodoChangedEvent.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+-- Baseline schema, matching the JPA mappings in com.todo.model.
+-- Kept to SQL that H2 and PostgreSQL both accept.
+
+CREATE TABLE users (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username    VARCHAR(100) NOT NULL,
+    email       VARCHAR(100) NOT NULL,
+    password    VARCHAR(255) NOT NULL,
+    role        VARCHAR(255) NOT NULL,
+    enabled     BOOLEAN      NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+-- Login and the JWT principal lookup both go by username
+CREATE UNIQUE INDEX idx_users_username ON users (username);
+
+-- Pooled ids: Hibernate reserves 50 ids per call (Todo.id allocationSize)
+CREATE SEQUENCE todos_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE todos (
+    id             BIGINT        NOT NULL PRIMARY KEY,
+    title          VARCHAR(255)  NOT NULL,
+    description    VARCHAR(1000),
+    completed      BOOLEAN       NOT NULL,
+    priority       VARCHAR(255)  NOT NULL,
+    priority_rank  INTEGER       NOT NULL,
+    due_date       TIMESTAMP(6),
+    version        BIGINT,
+    user_id        BIGINT        NOT NULL,
+    created_at     TIMESTAMP(6)  NOT NULL,
+    updated_at     TIMESTAMP(6)  NOT NULL,
+    CONSTRAINT fk_todos_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+-- Keyset pagination: one index per sort key, with id as the tie-breaker
+CREATE INDEX idx_todos_user_created ON todos (user_id, created_at, id);
+CREATE INDEX idx_todos_user_updated ON todos (user_id, updated_at, id);
+CREATE INDEX idx_todos_user_due ON todos (user_id, due_date, id);
+CREATE INDEX idx_todos_user_priority ON todos (user_id, priority_rank, id);
+-- Status filters: GET /api/todos?completed=...
+CREATE INDEX idx_todos_user_completed ON todos (user_id, completed);
@@ -0,0 +1,5 @@
+-- Write-behind journal progress (JournalCheckpoint), see WriteBehindTodoStore
+CREATE TABLE journal_checkpoint (
+    name         VARCHAR(50) NOT NULL PRIMARY KEY,
+    applied_seq  BIGINT      NOT NULL
+);
@@ -0,0 +1,18 @@
+-- Access tokens carry users.token_version; bumping it revokes them (see TokenRevocations)
+ALTER TABLE users ADD COLUMN token_version BIGINT DEFAULT 0 NOT NULL;
+
+-- Rotating refresh tokens, stored as SHA-256 hex (RefreshToken)
+CREATE TABLE refresh_tokens (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token_hash  VARCHAR(64)  NOT NULL,
+    family      VARCHAR(36)  NOT NULL,
+    user_id     BIGINT       NOT NULL,
+    used        BOOLEAN      NOT NULL,
+    expires_at  TIMESTAMP(6) NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE UNIQUE INDEX idx_refresh_tokens_hash ON refresh_tokens (token_hash);
+CREATE INDEX idx_refresh_tokens_family ON refresh_tokens (family);
+CREATE INDEX idx_refresh_tokens_user ON refresh_tokens (user_id);
@@ -0,0 +1,3 @@
+-- Bumped in every transaction that changes a user's todos; list ETags and the list cache are
+-- keyed by it, so they stay correct with several instances on one database (TodoChangeTracker)
+ALTER TABLE users ADD COLUMN list_version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,2 @@
+-- TokenRevocations polls for users updated since its last refresh
+CREATE INDEX idx_users_updated ON users (updated_at);
@@ -0,0 +1,12 @@
+-- Committed todo changes, read by id by every instance's change feed (TodoChangeLog)
+CREATE TABLE todo_changes (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id     BIGINT        NOT NULL,
+    type        VARCHAR(10)   NOT NULL,
+    todo_id     BIGINT        NOT NULL,
+    todo        VARCHAR(8000),
+    created_at  TIMESTAMP(6)  NOT NULL
+);
+
+CREATE INDEX idx_todo_changes_user ON todo_changes (user_id, id);
+CREATE INDEX idx_todo_changes_created ON todo_changes (created_at);
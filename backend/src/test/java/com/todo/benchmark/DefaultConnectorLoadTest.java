@@ -0,0 +1,19 @@
+package com.todo.benchmark;
+
+import java.net.http.HttpClient;
+
+/**
+ * Tomcat's defaults: uncompressed HTTP/1.1.
+ */
+class DefaultConnectorLoadTest extends ListTransferLoadTestSupport {
+
+    @Override
+    protected String mode() {
+        return "default connector, HTTP/1.1";
+    }
+
+    @Override
+    protected HttpClient.Version httpVersion() {
+        return HttpClient.Version.HTTP_1_1;
+    }
+}
@@ -0,0 +1,26 @@
+package com.todo.benchmark;
+
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * The json-logs profile under the same mix as {@link VerboseLoggingLoadTest}: INFO level,
+ * asynchronous JSON appender, rejected tokens logged at most ten times a minute.
+ */
+@ActiveProfiles("json-logs")
+class JsonLoggingLoadTest extends ServletLoadTestSupport {
+
+    @Override
+    protected String mode() {
+        return "async JSON logging";
+    }
+
+    @Override
+    protected int readPercent() {
+        return 70;
+    }
+
+    @Override
+    protected int rejectedTokenPercent() {
+        return 10;
+    }
+}
@@ -0,0 +1,89 @@
+package com.todo.benchmark;
+
+import com.todo.security.JwtTokenUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the bearer-token hot path of {@code JwtAuthenticationFilter} before and after
+ * verified-claims caching. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class JwtValidationBenchmarkTest {
+
+    private static final String SECRET =
+            "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437772141442A472D4A614E645267556B58703273357638792F423F4528482B4D6251";
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 100_000;
+
+    @Test
+    void compareLegacyAndCachedValidation() {
+        JwtTokenUtil jwtTokenUtil = new JwtTokenUtil();
+        ReflectionTestUtils.setField(jwtTokenUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtTokenUtil, "expiration", 3600000L);
+        ReflectionTestUtils.setField(jwtTokenUtil, "cacheMaxSize", 10000L);
+        ReflectionTestUtils.setField(jwtTokenUtil, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(jwtTokenUtil, "init");
+
+        UserDetails userDetails = new User("benchmark", "password", Collections.emptyList());
+        String token = jwtTokenUtil.generateToken(userDetails);
+
+        double legacyNanos = measure(() -> legacyFilterPath(token, userDetails));
+        double cachedNanos = measure(() -> cachedFilterPath(jwtTokenUtil, token, userDetails));
+
+        System.out.printf("JWT filter hot path: legacy %.0f ns/op, cached %.0f ns/op (%.1fx)%n",
+                legacyNanos, cachedNanos, legacyNanos / cachedNanos);
+        assertTrue(cachedNanos < legacyNanos);
+    }
+
+    private double measure(Runnable operation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            operation.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            operation.run();
+        }
+        return (double) (System.nanoTime() - start) / MEASURED_ITERATIONS;
+    }
+
+    private void cachedFilterPath(JwtTokenUtil jwtTokenUtil, String token, UserDetails userDetails) {
+        Claims claims = jwtTokenUtil.getVerifiedClaims(token);
+        if (!jwtTokenUtil.validateToken(claims, userDetails)) {
+            throw new IllegalStateException("Token should be valid");
+        }
+    }
+
+    // The pre-cache filter: one parse for the username, then two more inside validateToken,
+    // each rebuilding the signing key and the parser
+    private void legacyFilterPath(String token, UserDetails userDetails) {
+        String username = legacyParse(token).getSubject();
+        boolean valid = legacyParse(token).getSubject().equals(userDetails.getUsername())
+                && !legacyParse(token).getExpiration().before(new Date());
+        if (!username.equals(userDetails.getUsername()) || !valid) {
+            throw new IllegalStateException("Token should be valid");
+        }
+    }
+
+    private Claims legacyParse(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
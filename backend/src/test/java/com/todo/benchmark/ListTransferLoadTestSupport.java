@@ -0,0 +1,146 @@
+package com.todo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Clients repeatedly download a full page of 500 todos, offering gzip, and the bytes received
+ * (still encoded) are counted along with throughput and latency. Subclasses pick the connector
+ * profile and HTTP version; compare their printed bytes per response and p99 latency.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "logging.level.com.todo=INFO",
+        "logging.level.org.springframework.security=INFO",
+        "todo.rate-limit.enabled=false"
+})
+abstract class ListTransferLoadTestSupport {
+
+    private static final int CLIENTS = 50;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASURED = Duration.ofSeconds(15);
+    private static final int SEEDED_TODOS = 500;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private HttpClient client;
+
+    private String token;
+
+    protected abstract String mode();
+
+    protected abstract HttpClient.Version httpVersion();
+
+    @BeforeEach
+    void seed() throws Exception {
+        client = HttpClient.newBuilder()
+                .version(httpVersion())
+                .executor(Executors.newFixedThreadPool(8))
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        String username = "transfer" + System.nanoTime();
+        String body = "{\"username\":\"" + username + "\",\"email\":\"" + username + "@test.com\",\"password\":\"password123\"}";
+        HttpResponse<String> registered = client.send(request("/api/auth/register").POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, registered.statusCode());
+        token = objectMapper.readTree(registered.body()).get("token").asText();
+
+        StringBuilder batch = new StringBuilder("{\"operations\":[");
+        for (int i = 0; i < SEEDED_TODOS; i++) {
+            batch.append(i == 0 ? "" : ",").append("{\"op\":\"CREATE\",\"todo\":{\"title\":\"Transfer test todo ").append(i)
+                    .append("\",\"description\":\"Seeded so that list pages have a realistic size\",\"priority\":\"MEDIUM\"}}");
+        }
+        HttpResponse<String> seeded = client.send(request("/api/todos/batch")
+                .POST(HttpRequest.BodyPublishers.ofString(batch.append("]}").toString())).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, seeded.statusCode());
+    }
+
+    @Test
+    void measureListTransfer() throws Exception {
+        run(WARMUP, new AtomicLong());
+        AtomicLong bytes = new AtomicLong();
+        long[] latencies = run(MEASURED, bytes);
+
+        Arrays.sort(latencies);
+        double throughput = latencies.length / (double) MEASURED.toSeconds();
+        System.out.printf("%s: %d clients, %.0f req/s, %.1f KB per response, p50 %.1f ms, p99 %.1f ms, max %.1f ms%n", mode(), CLIENTS,
+                throughput, bytes.get() / 1024.0 / latencies.length, percentile(latencies, 0.50), percentile(latencies, 0.99),
+                latencies[latencies.length - 1] / 1e6);
+        assertTrue(latencies.length > 0);
+    }
+
+    private long[] run(Duration duration, AtomicLong bytes) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            results.add(clients.submit(() -> {
+                long[] samples = new long[1024];
+                int count = 0;
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    // Bodies are counted as received; HttpClient does not decode gzip itself
+                    HttpResponse<byte[]> response = client.send(request("/api/todos?limit=" + SEEDED_TODOS)
+                            .header("Accept-Encoding", "gzip").GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+                    // A failed h2c upgrade leaves the connection on HTTP/1.1
+                    if (response.statusCode() != 200 || response.version() != httpVersion()) {
+                        errors.incrementAndGet();
+                    }
+                    bytes.addAndGet(response.body().length);
+                    if (count == samples.length) {
+                        samples = Arrays.copyOf(samples, count * 2);
+                    }
+                    samples[count++] = System.nanoTime() - start;
+                }
+                return Arrays.copyOf(samples, count);
+            }));
+        }
+        long[] all = new long[0];
+        for (Future<long[]> result : results) {
+            long[] samples = result.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + samples.length);
+            System.arraycopy(samples, 0, all, offset, samples.length);
+        }
+        clients.shutdown();
+        assertEquals(0, errors.get(), "requests failed under load");
+        return all;
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+        return token == null ? builder : builder.header("Authorization", "Bearer " + token);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+    }
+}
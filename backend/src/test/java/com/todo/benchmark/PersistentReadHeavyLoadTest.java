@@ -0,0 +1,22 @@
+package com.todo.benchmark;
+
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * 95% reads against the file-backed persistent profile. Run with {@code mvn test -Pbenchmark}.
+ */
+@ActiveProfiles("persistent")
+@TestPropertySource(properties = "todo.db.path=./target/benchmark-db/read-heavy-${random.uuid}")
+class PersistentReadHeavyLoadTest extends ServletLoadTestSupport {
+
+    @Override
+    protected String mode() {
+        return "persistent H2";
+    }
+
+    @Override
+    protected int readPercent() {
+        return 95;
+    }
+}
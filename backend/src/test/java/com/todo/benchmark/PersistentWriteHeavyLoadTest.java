@@ -0,0 +1,23 @@
+package com.todo.benchmark;
+
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * 80% creates against the file-backed persistent profile, where every commit reaches the
+ * database file. Run with {@code mvn test -Pbenchmark}.
+ */
+@ActiveProfiles("persistent")
+@TestPropertySource(properties = "todo.db.path=./target/benchmark-db/write-heavy-${random.uuid}")
+class PersistentWriteHeavyLoadTest extends ServletLoadTestSupport {
+
+    @Override
+    protected String mode() {
+        return "persistent H2";
+    }
+
+    @Override
+    protected int readPercent() {
+        return 20;
+    }
+}
@@ -0,0 +1,12 @@
+package com.todo.benchmark;
+
+/**
+ * The default mode: Tomcat's platform worker pool. Run with {@code mvn test -Pbenchmark}.
+ */
+class PlatformThreadsLoadTest extends ServletLoadTestSupport {
+
+    @Override
+    protected String mode() {
+        return "platform threads";
+    }
+}
@@ -0,0 +1,168 @@
+package com.todo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the real server over HTTP with more concurrent clients than Tomcat has worker threads:
+ * by default 80% item reads and 20% creates, all of which go to the database. Subclasses pick
+ * the threading mode, database profile, logging setup and mix; compare their printed throughput
+ * and p99 latency.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        // Per-request DEBUG logging would dominate the measurement
+        "logging.level.com.todo=INFO",
+        "logging.level.org.springframework.security=INFO",
+        // One client IP and one user generate all the load
+        "todo.rate-limit.enabled=false"
+})
+abstract class ServletLoadTestSupport {
+
+    private static final int CLIENTS = 400;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASURED = Duration.ofSeconds(15);
+    private static final int SEEDED_TODOS = 100;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newFixedThreadPool(8))
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private String token;
+
+    private long[] todoIds;
+
+    protected abstract String mode();
+
+    protected int readPercent() {
+        return 80;
+    }
+
+    // Requests with a forged bearer token, which must be rejected; taken out of the creates
+    protected int rejectedTokenPercent() {
+        return 0;
+    }
+
+    @BeforeEach
+    void seed() throws Exception {
+        String username = "load" + System.nanoTime();
+        String body = "{\"username\":\"" + username + "\",\"email\":\"" + username + "@test.com\",\"password\":\"password123\"}";
+        HttpResponse<String> registered = client.send(request("/api/auth/register").POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, registered.statusCode());
+        token = objectMapper.readTree(registered.body()).get("token").asText();
+
+        todoIds = new long[SEEDED_TODOS];
+        for (int i = 0; i < SEEDED_TODOS; i++) {
+            todoIds[i] = objectMapper.readTree(create().body()).get("id").asLong();
+        }
+    }
+
+    @Test
+    void measureThroughputAndTailLatency() throws Exception {
+        run(WARMUP);
+        long[] latencies = run(MEASURED);
+
+        Arrays.sort(latencies);
+        double throughput = latencies.length / (double) MEASURED.toSeconds();
+        System.out.printf("%s, %d%% reads: %d clients, %.0f req/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms%n", mode(), readPercent(), CLIENTS,
+                throughput, percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6);
+        assertTrue(latencies.length > 0);
+    }
+
+    private long[] run(Duration duration) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            results.add(clients.submit(() -> {
+                long[] samples = new long[1024];
+                int count = 0;
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    int roll = ThreadLocalRandom.current().nextInt(100);
+                    boolean forged = roll < rejectedTokenPercent();
+                    boolean read = !forged && roll < rejectedTokenPercent() + readPercent();
+                    int status = forged ? forged().statusCode() : read ? read().statusCode() : create().statusCode();
+                    if (forged ? status != 403 : status >= 400) {
+                        errors.incrementAndGet();
+                    }
+                    if (count == samples.length) {
+                        samples = Arrays.copyOf(samples, count * 2);
+                    }
+                    samples[count++] = System.nanoTime() - start;
+                }
+                return Arrays.copyOf(samples, count);
+            }));
+        }
+        long[] all = new long[0];
+        for (Future<long[]> result : results) {
+            long[] samples = result.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + samples.length);
+            System.arraycopy(samples, 0, all, offset, samples.length);
+        }
+        clients.shutdown();
+        assertEquals(0, errors.get(), "requests failed under load");
+        return all;
+    }
+
+    private HttpResponse<String> read() throws Exception {
+        long id = todoIds[ThreadLocalRandom.current().nextInt(todoIds.length)];
+        return client.send(request("/api/todos/" + id).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> forged() throws Exception {
+        long id = todoIds[ThreadLocalRandom.current().nextInt(todoIds.length)];
+        return client.send(request("/api/todos/" + id).setHeader("Authorization", "Bearer " + token + "x").GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> create() throws Exception {
+        return client.send(request("/api/todos")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Load test todo\",\"priority\":\"LOW\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+        return token == null ? builder : builder.header("Authorization", "Bearer " + token);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+    }
+}
@@ -0,0 +1,138 @@
+package com.todo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Exports a million todos over HTTP from the file-backed persistent profile and reports the
+ * time taken and how far the live heap grew meanwhile, sampled after a full GC every half
+ * second. Run with {@code mvn test -Pbenchmark -Dtest=TodoExportLoadTest}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "logging.level.com.todo=INFO",
+        "todo.rate-limit.enabled=false"
+})
+@ActiveProfiles("persistent")
+@TestPropertySource(properties = "todo.db.path=./target/benchmark-db/export-${random.uuid}")
+class TodoExportLoadTest {
+
+    private static final int TODOS = Integer.getInteger("todos", 1_000_000);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void exportMillionTodos() throws Exception {
+        String username = "export" + System.nanoTime();
+        String body = "{\"username\":\"" + username + "\",\"email\":\"" + username + "@test.com\",\"password\":\"password123\"}";
+        HttpResponse<String> registered = client.send(HttpRequest.newBuilder(uri("/api/auth/register"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        String token = objectMapper.readTree(registered.body()).get("token").asText();
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+        // The persistent profile hands out connections with autocommit off
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> seed(userId));
+
+        for (String format : List.of("ndjson", "csv")) {
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            System.gc();
+            long baseline = memory.getHeapMemoryUsage().getUsed();
+            AtomicLong peak = new AtomicLong(baseline);
+            AtomicBoolean done = new AtomicBoolean();
+            Thread sampler = new Thread(() -> {
+                while (!done.get()) {
+                    System.gc();
+                    peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                    try {
+                        Thread.sleep(500);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+            sampler.start();
+
+            long start = System.nanoTime();
+            HttpResponse<InputStream> response = client.send(HttpRequest.newBuilder(uri("/api/todos/export?format=" + format))
+                    .header("Authorization", "Bearer " + token).GET().build(), HttpResponse.BodyHandlers.ofInputStream());
+            long bytes = 0;
+            long lines = 0;
+            byte[] buffer = new byte[64 * 1024];
+            try (InputStream in = response.body()) {
+                for (int read; (read = in.read(buffer)) != -1; ) {
+                    bytes += read;
+                    for (int i = 0; i < read; i++) {
+                        if (buffer[i] == '\n') {
+                            lines++;
+                        }
+                    }
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            done.set(true);
+            sampler.join();
+
+            assertEquals(200, response.statusCode());
+            assertEquals(format.equals("csv") ? TODOS + 1 : TODOS, lines);
+            System.out.printf("%s export: %d todos, %.1f MB in %.1f s, live heap grew by at most %.1f MB%n", format, TODOS,
+                    bytes / 1e6, elapsed / 1e9, (peak.get() - baseline) / 1e6);
+        }
+    }
+
+    private void seed(Long userId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        // Ids far above what the pooled sequence hands out in this run
+        long firstId = 100_000_000L;
+        for (int from = 0; from < TODOS; from += 10_000) {
+            List<Object[]> rows = new ArrayList<>(10_000);
+            for (int i = from; i < from + 10_000; i++) {
+                rows.add(new Object[]{firstId + i, "Exported todo " + i, "Description of todo number " + i,
+                        i % 3 == 0, "MEDIUM", 1, now, now, userId});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO todos (id, title, description, completed, priority, priority_rank, "
+                    + "version, created_at, updated_at, user_id) VALUES (?, ?, ?, ?, ?, ?, 0, ?, ?, ?)", rows);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
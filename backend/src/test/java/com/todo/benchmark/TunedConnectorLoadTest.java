@@ -0,0 +1,23 @@
+package com.todo.benchmark;
+
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.http.HttpClient;
+
+/**
+ * The http-tuning profile: gzip above 2 KB, and h2c, which the client reaches through
+ * {@code Upgrade: h2c} on its first request.
+ */
+@ActiveProfiles("http-tuning")
+class TunedConnectorLoadTest extends ListTransferLoadTestSupport {
+
+    @Override
+    protected String mode() {
+        return "http-tuning, HTTP/2";
+    }
+
+    @Override
+    protected HttpClient.Version httpVersion() {
+        return HttpClient.Version.HTTP_2;
+    }
+}
@@ -0,0 +1,32 @@
+package com.todo.benchmark;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * The logging setup before the json-logs profile: DEBUG for the application and Spring Security,
+ * written synchronously to the console, and every rejected token logged. One request in ten
+ * carries a forged token. Compare with {@link JsonLoggingLoadTest}; run with
+ * {@code mvn test -Pbenchmark -Dtest='*LoggingLoadTest'}.
+ */
+@TestPropertySource(properties = {
+        "logging.level.com.todo=DEBUG",
+        "logging.level.org.springframework.security=DEBUG",
+        "todo.logging.auth-failures-per-minute=2147483647"
+})
+class VerboseLoggingLoadTest extends ServletLoadTestSupport {
+
+    @Override
+    protected String mode() {
+        return "verbose sync logging";
+    }
+
+    @Override
+    protected int readPercent() {
+        return 70;
+    }
+
+    @Override
+    protected int rejectedTokenPercent() {
+        return 10;
+    }
+}
@@ -0,0 +1,19 @@
+package com.todo.benchmark;
+
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * The virtual-threads profile, including JDBC admission control. Needs a JDK 21:
+ * {@code mvn test -Pjava21,benchmark}.
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+@ActiveProfiles("virtual-threads")
+class VirtualThreadsLoadTest extends ServletLoadTestSupport {
+
+    @Override
+    protected String mode() {
+        return "virtual threads";
+    }
+}
@@ -0,0 +1,28 @@
+package com.todo.benchmark;
+
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * The {@link PersistentWriteHeavyLoadTest} mix with write-behind on: creates are acknowledged
+ * from the group-committed journal and reach the database in batches. Compare the two runs'
+ * throughput and p99. Run with {@code mvn test -Pbenchmark}.
+ */
+@ActiveProfiles("persistent")
+@TestPropertySource(properties = {
+        "todo.db.path=./target/benchmark-db/write-behind-${random.uuid}",
+        "todo.write-behind.enabled=true",
+        "todo.write-behind.journal-path=./target/benchmark-db/journal-${random.uuid}.log"
+})
+class WriteBehindLoadTest extends ServletLoadTestSupport {
+
+    @Override
+    protected String mode() {
+        return "persistent H2, write-behind";
+    }
+
+    @Override
+    protected int readPercent() {
+        return 20;
+    }
+}
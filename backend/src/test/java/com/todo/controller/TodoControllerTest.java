@@ -1,6 +1,8 @@
 package com.todo.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.dto.TodoPage;
+import com.todo.dto.TodoQuery;
 import com.todo.dto.TodoRequest;
 import com.todo.dto.TodoResponse;
 import com.todo.security.JwtTokenUtil;
@@ -22,6 +24,9 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -58,7 +63,8 @@ class TodoControllerTest {
                 "MEDIUM",
                 null,
                 LocalDateTime.now(),
-                LocalDateTime.now()
+                LocalDateTime.now(),
+                0L
         );
     }
 
@@ -66,11 +72,30 @@ class TodoControllerTest {
     @WithMockUser
     void getAllTodos_ShouldReturnTodoList() throws Exception {
         List<TodoResponse> todos = Arrays.asList(todoResponse);
-        when(todoService.getAllTodos()).thenReturn(todos);
+        when(todoService.getTodos(any(TodoQuery.class), anyLong())).thenReturn(new TodoPage(todos, null));
 
         mockMvc.perform(get("/api/todos"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].title").value("Test Todo"));
+                .andExpect(jsonPath("$[0].title").value("Test Todo"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    @WithMockUser
+    void getAllTodos_ShouldExposeNextCursorHeader() throws Exception {
+        when(todoService.getTodos(any(TodoQuery.class), anyLong()))
+                .thenReturn(new TodoPage(Arrays.asList(todoResponse), "next-page"));
+
+        mockMvc.perform(get("/api/todos").param("limit", "1").param("sort", "priority"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next-page"));
+    }
+
+    @Test
+    @WithMockUser
+    void getAllTodos_ShouldRejectUnknownSortField() throws Exception {
+        mockMvc.perform(get("/api/todos").param("sort", "title"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -80,7 +105,34 @@ class TodoControllerTest {
 
         mockMvc.perform(get("/api/todos/1"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.title").value("Test Todo"));
+                .andExpect(jsonPath("$.title").value("Test Todo"))
+                .andExpect(header().string("ETag", "\"1.0\""));
+    }
+
+    @Test
+    @WithMockUser
+    void getTodoById_ShouldReturnNotModifiedWithoutLoadingTodo() throws Exception {
+        when(todoService.getTodoVersion(1L)).thenReturn(0L);
+
+        mockMvc.perform(get("/api/todos/1").header("If-None-Match", "\"1.0\""))
+                .andExpect(status().isNotModified());
+
+        verify(todoService, never()).getTodoById(anyLong());
+    }
+
+    @Test
+    @WithMockUser
+    void getAllTodos_ShouldReturnNotModifiedWithoutQuerying() throws Exception {
+        when(todoService.getListVersion()).thenReturn(3L);
+        when(todoService.getTodos(any(TodoQuery.class), anyLong())).thenReturn(new TodoPage(Arrays.asList(todoResponse), null));
+
+        String eTag = mockMvc.perform(get("/api/todos"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/todos").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        verify(todoService, times(1)).getTodos(any(TodoQuery.class), anyLong());
     }
 
     @Test
@@ -110,13 +162,28 @@ class TodoControllerTest {
         request.setCompleted(true);
         request.setPriority("LOW");
 
-        when(todoService.updateTodo(anyLong(), any(TodoRequest.class))).thenReturn(todoResponse);
+        when(todoService.updateTodo(anyLong(), any(TodoRequest.class), any())).thenReturn(todoResponse);
+
+        mockMvc.perform(put("/api/todos/1")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1.0\""));
+    }
+
+    @Test
+    @WithMockUser
+    void updateTodo_ShouldRejectIfMatchForAnotherTodo() throws Exception {
+        TodoRequest request = new TodoRequest();
+        request.setTitle("Updated Todo");
 
         mockMvc.perform(put("/api/todos/1")
                         .with(csrf())
+                        .header("If-Match", "\"2.0\"")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
-                .andExpect(status().isOk());
+                .andExpect(status().isPreconditionFailed());
     }
 
     @Test
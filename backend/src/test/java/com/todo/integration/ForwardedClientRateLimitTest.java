@@ -0,0 +1,52 @@
+package com.todo.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Clients behind the load balancer share its connection address; their limits must follow the
+ * address in X-Forwarded-For instead. Runs on a real port, where Tomcat's RemoteIpValve applies.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        // The test client stands in for the load balancer
+        "server.tomcat.remoteip.internal-proxies=127\\\\.0\\\\.0\\\\.1",
+        "todo.rate-limit.auth.ip.burst=3",
+        "todo.rate-limit.auth.ip.per-minute=1"
+})
+class ForwardedClientRateLimitTest {
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void authLimit_ShouldApplyPerForwardedClient() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(401, refresh("203.0.113.1").statusCode());
+        }
+        assertEquals(429, refresh("203.0.113.1").statusCode());
+
+        // Another client behind the same proxy still has its own allowance
+        assertEquals(401, refresh("203.0.113.2").statusCode());
+        // An address the client prepends itself is not trusted
+        assertEquals(429, refresh("198.51.100.7, 203.0.113.1").statusCode());
+    }
+
+    private HttpResponse<String> refresh(String forwardedFor) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/refresh"))
+                        .header("Content-Type", "application/json")
+                        .header("X-Forwarded-For", forwardedFor)
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"refreshToken\":\"not-a-token\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,70 @@
+package com.todo.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Actuator endpoints are served on the management port only, which the load balancer does not
+ * route; the application port must not expose them.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
+class ManagementPortTest {
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void prometheus_ShouldExposeHotPathTimingsAndStatementCountsOnTheManagementPort() throws Exception {
+        String username = "metrics" + System.nanoTime();
+        String body = "{\"username\":\"" + username + "\",\"email\":\"" + username + "@test.com\",\"password\":\"password123\"}";
+        HttpResponse<String> registered = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/register"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+        String token = objectMapper.readTree(registered.body()).get("token").asText();
+        assertEquals(200, get(port, "/api/todos", token).statusCode());
+
+        HttpResponse<String> scrape = get(managementPort, "/actuator/prometheus", null);
+        assertEquals(200, scrape.statusCode());
+        assertThat(scrape.body(), containsString("auth_jwt_verify_seconds_count"));
+        assertThat(scrape.body(), containsString("todo_service_seconds_bucket"));
+        assertThat(scrape.body(), containsString("method=\"getTodos\""));
+        assertThat(scrape.body(), containsString("spring_data_repository_invocations_seconds_count"));
+        assertThat(scrape.body(), containsString("todo_request_statements_count{method=\"GET\",uri=\"/api/todos\""));
+        assertEquals(200, get(managementPort, "/actuator/health", null).statusCode());
+
+        assertNotEquals(200, get(port, "/actuator/prometheus", null).statusCode());
+        assertNotEquals(200, get(port, "/actuator/prometheus", token).statusCode());
+    }
+
+    private HttpResponse<String> get(int port, String path, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET();
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,51 @@
+package com.todo.integration;
+
+import com.todo.model.Todo;
+import com.todo.model.User;
+import com.todo.repository.TodoRepository;
+import com.todo.repository.UserRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Boots the persistent profile on a throwaway H2 file: the migrations must apply and satisfy
+ * Hibernate's schema validation, so the entities and db/migration cannot drift apart.
+ */
+@SpringBootTest(properties = "todo.db.path=./target/persistent-profile-test/tododb-${random.uuid}")
+@ActiveProfiles("persistent")
+class PersistentProfileTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Test
+    void migrations_ShouldCreateSchemaMatchingEntities() {
+        assertEquals("6", flyway.info().current().getVersion().getVersion());
+
+        User user = new User();
+        user.setUsername("persistent" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@test.com");
+        user.setPassword("hash");
+        user = userRepository.save(user);
+
+        Todo todo = new Todo();
+        todo.setTitle("Stored on disk");
+        todo.setUser(user);
+        Todo saved = todoRepository.save(todo);
+
+        assertEquals(1, todoRepository.findResponsesByUserId(user.getId()).size());
+        assertEquals(0L, saved.getVersion());
+        assertTrue(userRepository.findByUsername(user.getUsername()).isPresent());
+    }
+}
@@ -1,6 +1,8 @@
 package com.todo.integration;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import com.todo.dto.LoginRequest;
 import com.todo.dto.RegisterRequest;
 import com.todo.dto.TodoRequest;
@@ -10,9 +12,21 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -26,8 +40,15 @@ class TodoIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private String jwtToken;
 
+    private String refreshToken;
+
+    private String username;
+
     @BeforeEach
     void setUp() throws Exception {
         // Register a test user
@@ -36,14 +57,140 @@ class TodoIntegrationTest {
         registerRequest.setEmail("integration" + System.currentTimeMillis() + "@test.com");
         registerRequest.setPassword("password123");
 
-        MvcResult registerResult = mockMvc.perform(post("/api/auth/register")
+        // Password hashing completes asynchronously on its own pool
+        MvcResult registration = mockMvc.perform(post("/api/auth/register")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(registerRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult registerResult = mockMvc.perform(asyncDispatch(registration))
                 .andExpect(status().isCreated())
                 .andReturn();
 
         String registerResponse = registerResult.getResponse().getContentAsString();
         jwtToken = objectMapper.readTree(registerResponse).get("token").asText();
+        refreshToken = objectMapper.readTree(registerResponse).get("refreshToken").asText();
+        username = registerRequest.getUsername();
+    }
+
+    @Test
+    void register_ShouldRejectTakenUsernameWithConflict() throws Exception {
+        RegisterRequest duplicate = new RegisterRequest();
+        duplicate.setUsername(username);
+        duplicate.setEmail("other" + System.nanoTime() + "@test.com");
+        duplicate.setPassword("password123");
+
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(duplicate)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Username already exists"));
+    }
+
+    @Test
+    void login_ShouldIssueTokenOrRejectBadPassword() throws Exception {
+        LoginRequest login = new LoginRequest();
+        login.setUsername(username);
+        login.setPassword("password123");
+        MvcResult accepted = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(login)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(accepted))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isNotEmpty());
+
+        login.setPassword("wrong-password");
+        MvcResult rejected = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(login)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(rejected))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void login_ShouldBeRateLimitedPerUsername() throws Exception {
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setUsername(username);
+        loginRequest.setPassword("wrong-password");
+        for (int i = 0; i < 5; i++) {
+            MvcResult attempt = mockMvc.perform(post("/api/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(loginRequest)))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(attempt))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        // Refused before any password is hashed, even with the right one
+        loginRequest.setPassword("password123");
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    void refresh_ShouldRotateRefreshTokenAndRevokeFamilyOnReuse() throws Exception {
+        String body = "{\"refreshToken\":\"" + refreshToken + "\"}";
+        MvcResult refreshed = mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isNotEmpty())
+                .andExpect(jsonPath("$.expiresIn").value(900))
+                .andReturn();
+        String next = objectMapper.readTree(refreshed.getResponse().getContentAsString()).get("refreshToken").asText();
+        String accessToken = objectMapper.readTree(refreshed.getResponse().getContentAsString()).get("token").asText();
+        assertFalse(next.equals(refreshToken));
+
+        mockMvc.perform(get("/api/todos").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk());
+
+        // Replaying the used token revokes its successor as well
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + next + "\"}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void logoutAll_ShouldRevokeAccessAndRefreshTokens() throws Exception {
+        mockMvc.perform(get("/api/todos").header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/auth/logout-all").header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/todos").header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + refreshToken + "\"}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void logoutAll_ShouldCloseChangeStreams() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/api/todos/changes")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(post("/api/auth/logout-all").header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNoContent());
+
+        // Completing the emitter ends the async request; this fails if it is still open
+        stream.getAsyncResult(5000);
     }
 
     @Test
@@ -101,7 +248,608 @@ class TodoIntegrationTest {
         // Verify deletion
         mockMvc.perform(get("/api/todos/" + todoId)
                         .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void listTodos_ShouldPageThroughResultsWithCursor() throws Exception {
+        String[] priorities = {"LOW", "HIGH", "MEDIUM"};
+        for (int i = 0; i < priorities.length; i++) {
+            TodoRequest request = new TodoRequest();
+            request.setTitle("Paged Todo " + i);
+            request.setPriority(priorities[i]);
+            mockMvc.perform(post("/api/todos")
+                            .header("Authorization", "Bearer " + jwtToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated());
+        }
+
+        MvcResult firstPage = mockMvc.perform(get("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .param("sort", "priority")
+                        .param("direction", "desc")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].priority").value("HIGH"))
+                .andExpect(jsonPath("$[1].priority").value("MEDIUM"))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn();
+
+        mockMvc.perform(get("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .param("sort", "priority")
+                        .param("direction", "desc")
+                        .param("limit", "2")
+                        .param("cursor", firstPage.getResponse().getHeader("X-Next-Cursor")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].priority").value("LOW"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+        mockMvc.perform(get("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .param("priority", "LOW", "MEDIUM"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void batch_ShouldApplyOperationsAndReportEachResult() throws Exception {
+        TodoRequest existing = new TodoRequest();
+        existing.setTitle("Existing Todo");
+        MvcResult createResult = mockMvc.perform(post("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(existing)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        long existingId = objectMapper.readTree(createResult.getResponse().getContentAsString()).get("id").asLong();
+
+        String batch = """
+                {"operations": [
+                  {"op": "CREATE", "todo": {"title": "Batch Todo 1", "priority": "HIGH"}},
+                  {"op": "CREATE", "todo": {"title": "Batch Todo 2"}},
+                  {"op": "COMPLETE", "id": %d},
+                  {"op": "UPDATE", "id": 999999, "todo": {"title": "Missing"}},
+                  {"op": "CREATE", "todo": {"title": ""}}
+                ]}
+                """.formatted(existingId);
+
+        mockMvc.perform(post("/api/todos/batch")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batch))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(3))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.results[0].status").value(201))
+                .andExpect(jsonPath("$.results[0].id").isNumber())
+                .andExpect(jsonPath("$.results[1].todo.title").value("Batch Todo 2"))
+                .andExpect(jsonPath("$.results[2].todo.completed").value(true))
+                .andExpect(jsonPath("$.results[3].status").value(404))
+                .andExpect(jsonPath("$.results[4].status").value(400));
+
+        String delete = "{\"operations\": [{\"op\": \"DELETE\", \"id\": " + existingId + "}]}";
+        mockMvc.perform(post("/api/todos/batch")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(delete))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].status").value(204));
+
+        mockMvc.perform(get("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void conditionalRequests_ShouldUseETagsAndVersions() throws Exception {
+        TodoRequest request = new TodoRequest();
+        request.setTitle("ETag Todo");
+        MvcResult createResult = mockMvc.perform(post("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        long todoId = objectMapper.readTree(createResult.getResponse().getContentAsString()).get("id").asLong();
+
+        String listETag = mockMvc.perform(get("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        // The same ETag covers every negotiated format, so responses vary by Accept, 304s included
+        mockMvc.perform(get("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("If-None-Match", listETag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues("Vary", hasItem("Accept")));
+
+        String itemETag = mockMvc.perform(get("/api/todos/" + todoId)
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("Vary", hasItem("Accept")))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/todos/" + todoId)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("If-None-Match", itemETag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues("Vary", hasItem("Accept")));
+
+        request.setTitle("ETag Todo v2");
+        mockMvc.perform(put("/api/todos/" + todoId)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("If-Match", itemETag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1));
+
+        // The list changed, and the old item version no longer matches
+        mockMvc.perform(get("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("If-None-Match", listETag))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/todos/" + todoId)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("If-Match", itemETag))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void listETag_ShouldFollowWritesCommittedByOtherInstances() throws Exception {
+        String listETag = mockMvc.perform(get("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+
+        // What another instance's create commits: the row and the bumped list version
+        long todoId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1000 FROM todos", Long.class);
+        jdbcTemplate.update("INSERT INTO todos (id, title, completed, priority, priority_rank, version, user_id, "
+                + "created_at, updated_at) VALUES (?, 'Elsewhere', false, 'MEDIUM', 1, 0, ?, "
+                + "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", todoId, userId);
+        jdbcTemplate.update("UPDATE users SET list_version = list_version + 1 WHERE id = ?", userId);
+
+        mockMvc.perform(get("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("If-None-Match", listETag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Elsewhere"));
+
+        // Writes through the API bump the version in their own transaction
+        long before = jdbcTemplate.queryForObject("SELECT list_version FROM users WHERE id = ?", Long.class, userId);
+        TodoRequest request = new TodoRequest();
+        request.setTitle("Here");
+        mockMvc.perform(post("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+        assertEquals(before + 1, jdbcTemplate.queryForObject("SELECT list_version FROM users WHERE id = ?",
+                Long.class, userId));
+    }
+
+    @Test
+    void patch_ShouldChangeOnlyGivenFields() throws Exception {
+        TodoRequest request = new TodoRequest();
+        request.setTitle("Patch Todo");
+        request.setDescription("Keep me");
+        request.setPriority("HIGH");
+        MvcResult createResult = mockMvc.perform(post("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        long id = objectMapper.readTree(createResult.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(patch("/api/todos/" + id)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("If-Match", "\"" + id + ".0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"completed\": true}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + id + ".1\""))
+                .andExpect(jsonPath("$.completed").value(true))
+                .andExpect(jsonPath("$.title").value("Patch Todo"))
+                .andExpect(jsonPath("$.description").value("Keep me"))
+                .andExpect(jsonPath("$.priority").value("HIGH"));
+
+        mockMvc.perform(patch("/api/todos/" + id)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("If-Match", "\"" + id + ".0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"completed\": false}"))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(patch("/api/todos/999999")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"completed\": true}"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(patch("/api/todos/" + id)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"  \"}"))
                 .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/todos/stats")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(jsonPath("$.completed").value(1));
+    }
+
+    @Test
+    void patch_ShouldClearFieldsSetToNull() throws Exception {
+        TodoRequest request = new TodoRequest();
+        request.setTitle("Clear Fields Todo");
+        request.setDescription("Drop me");
+        request.setDueDate(LocalDateTime.now().plusDays(3));
+        MvcResult createResult = mockMvc.perform(post("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.dueDate").isNotEmpty())
+                .andReturn();
+        long id = objectMapper.readTree(createResult.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(patch("/api/todos/" + id)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"dueDate\": null}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dueDate").doesNotExist())
+                .andExpect(jsonPath("$.description").value("Drop me"));
+
+        mockMvc.perform(patch("/api/todos/" + id)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\": null, \"priority\": \"LOW\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").doesNotExist())
+                .andExpect(jsonPath("$.priority").value("LOW"))
+                .andExpect(jsonPath("$.title").value("Clear Fields Todo"));
+
+        // Required fields cannot be cleared
+        mockMvc.perform(patch("/api/todos/" + id)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": null}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void deleteCompleted_ShouldRemoveOnlyCompletedTodos() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            TodoRequest request = new TodoRequest();
+            request.setTitle("Clear Todo " + i);
+            request.setCompleted(i > 0);
+            mockMvc.perform(post("/api/todos")
+                            .header("Authorization", "Bearer " + jwtToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(delete("/api/todos").param("completed", "true")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2));
+
+        mockMvc.perform(get("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Clear Todo 0"));
+        mockMvc.perform(get("/api/todos/stats")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.completed").value(0));
+    }
+
+    @Test
+    void todos_ShouldBeNegotiableAsCborWithEpochTimestamps() throws Exception {
+        TodoRequest request = new TodoRequest();
+        request.setTitle("Binary Todo");
+        request.setDueDate(LocalDateTime.of(2030, 1, 2, 3, 4, 5));
+        ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+        mockMvc.perform(post("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType("application/cbor")
+                        .accept("application/cbor")
+                        .content(cbor.writeValueAsBytes(Map.of("title", "Binary Todo", "dueDate",
+                                request.getDueDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()))))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType("application/cbor"));
+
+        MvcResult result = mockMvc.perform(get("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn();
+        JsonNode todos = cbor.readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("Binary Todo", todos.get(0).get("title").asText());
+        assertTrue(todos.get(0).get("createdAt").isIntegralNumber());
+        assertEquals(request.getDueDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                todos.get(0).get("dueDate").asLong());
+
+        // JSON stays the default, with ISO timestamps
+        mockMvc.perform(get("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].dueDate").value("2030-01-02T03:04:05"));
+    }
+
+    @Test
+    void importAndExport_ShouldRoundTripNdjsonAndCsv() throws Exception {
+        String csv = "title,description,completed,priority,dueDate\r\n"
+                + "Plain,,false,LOW,\r\n"
+                + "\"Quoted, with \"\"quotes\"\"\",\"Two\nlines\",true,HIGH,2030-01-02T03:04:05\r\n"
+                + ",missing title,false,LOW,\r\n";
+        mockMvc.perform(post("/api/todos/import")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0]").value(containsString("record 3")));
+
+        MvcResult csvExport = mockMvc.perform(get("/api/todos/export").param("format", "csv")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // Exports get todo.export.timeout; other async requests keep the container default
+        assertEquals(Duration.ofMinutes(30).toMillis(), csvExport.getRequest().getAsyncContext().getTimeout());
+        String exported = mockMvc.perform(asyncDispatch(csvExport))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string("Content-Disposition", containsString("todos.csv")))
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(exported.startsWith("id,title,description,completed,priority,dueDate,createdAt,updatedAt,version\r\n"));
+        assertTrue(exported.contains("\"Quoted, with \"\"quotes\"\"\",\"Two\nlines\",true,HIGH,2030-01-02T03:04:05,"));
+
+        // An NDJSON export imports back as copies
+        MvcResult ndjsonExport = mockMvc.perform(get("/api/todos/export")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String ndjson = mockMvc.perform(asyncDispatch(ndjsonExport))
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(2, ndjson.lines().count());
+
+        mockMvc.perform(post("/api/todos/import")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType("application/x-ndjson")
+                        .content(ndjson + "{not json}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(1));
+
+        mockMvc.perform(get("/api/todos/stats")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(jsonPath("$.total").value(4))
+                .andExpect(jsonPath("$.completed").value(2));
+    }
+
+    @Test
+    void import_ShouldSkipRecordsOverTheLengthLimit() throws Exception {
+        String huge = "x".repeat(70_000);
+        // The quoted line break and comma belong to the oversized record, which ends after them
+        String csv = "title,description\r\n"
+                + "\"" + huge + "\n,still the same\",record\r\n"
+                + "After,fine\r\n";
+        mockMvc.perform(post("/api/todos/import")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0]").value(containsString("record 1: longer than 65536")));
+
+        String ndjson = "{\"title\":\"" + huge + "\"}\n{\"title\":\"Next\"}\n";
+        mockMvc.perform(post("/api/todos/import")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(1));
+
+        mockMvc.perform(get("/api/todos/stats")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(jsonPath("$.total").value(2));
+    }
+
+    @Test
+    void search_ShouldFindTodosByWordPrefixAndFollowUpdates() throws Exception {
+        TodoRequest todoRequest = new TodoRequest();
+        todoRequest.setTitle("Renew passport");
+        todoRequest.setDescription("Book an appointment at the embassy");
+        MvcResult created = mockMvc.perform(post("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(todoRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long todoId = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+        todoRequest.setTitle("Water plants");
+        todoRequest.setDescription(null);
+        mockMvc.perform(post("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(todoRequest)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/todos/search")
+                        .param("q", "pass emb")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(todoId));
+
+        // Updates after the index is built are picked up from the change event
+        todoRequest.setTitle("Renew driving licence");
+        mockMvc.perform(put("/api/todos/" + todoId)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(todoRequest)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/todos/search")
+                        .param("q", "passport")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/api/todos/search")
+                        .param("q", "licence")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(todoId));
+
+        mockMvc.perform(get("/api/todos/search")
+                        .param("q", " ")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void stats_ShouldCountTodosAndFollowChanges() throws Exception {
+        mockMvc.perform(get("/api/todos/stats")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(0))
+                .andExpect(jsonPath("$.byPriority.HIGH").value(0));
+
+        TodoRequest todoRequest = new TodoRequest();
+        todoRequest.setTitle("File taxes");
+        todoRequest.setPriority("HIGH");
+        MvcResult created = mockMvc.perform(post("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(todoRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long todoId = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+        todoRequest.setTitle("Tidy desk");
+        todoRequest.setPriority("LOW");
+        mockMvc.perform(post("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(todoRequest)))
+                .andExpect(status().isCreated());
+
+        todoRequest.setTitle("File taxes");
+        todoRequest.setPriority("HIGH");
+        todoRequest.setCompleted(true);
+        mockMvc.perform(put("/api/todos/" + todoId)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(todoRequest)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/todos/stats")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.completed").value(1))
+                .andExpect(jsonPath("$.active").value(1))
+                .andExpect(jsonPath("$.overdue").value(0))
+                .andExpect(jsonPath("$.byPriority.HIGH").value(1))
+                .andExpect(jsonPath("$.byPriority.LOW").value(1))
+                .andExpect(jsonPath("$.byPriority.MEDIUM").value(0));
+    }
+
+    @Test
+    void changeFeed_ShouldStreamCommittedChangesAndResume() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/api/todos/changes")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        TodoRequest request = new TodoRequest();
+        request.setTitle("Streamed Todo");
+        mockMvc.perform(post("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        // Event fields are written one by one; the payload comes after the id and name
+        String events = awaitContent(stream, "Streamed Todo");
+        assertTrue(events.contains("event:created"));
+        String firstId = events.substring(events.indexOf("id:") + 3, events.indexOf('\n', events.indexOf("id:")));
+
+        request.setTitle("Missed Todo");
+        mockMvc.perform(post("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        // Resuming replays what came after the last seen id
+        MvcResult resumed = mockMvc.perform(get("/api/todos/changes")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("Last-Event-ID", firstId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String replayed = awaitContent(resumed, "Missed Todo");
+        assertFalse(replayed.contains("Streamed Todo"));
+
+        // An id the log never issued cannot be resumed
+        MvcResult reset = mockMvc.perform(get("/api/todos/changes")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .param("lastEventId", "stale:1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        awaitContent(reset, "event:reset");
+    }
+
+    @Test
+    void changeFeed_ShouldStreamChangesCommittedByOtherInstances() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/api/todos/changes")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+
+        // What another instance's delete commits to the change log
+        jdbcTemplate.update("INSERT INTO todo_changes (user_id, type, todo_id, created_at) "
+                + "VALUES (?, 'deleted', 424242, CURRENT_TIMESTAMP)", userId);
+
+        String events = awaitContent(stream, "424242");
+        assertTrue(events.contains("event:deleted"));
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = result.getResponse().getContentAsString();
+        }
+        assertTrue(content.contains(expected), () -> "Expected " + expected + " in stream: " + result);
+        return content;
+    }
+
+    @Test
+    void requestId_ShouldBeEchoedOrGenerated() throws Exception {
+        mockMvc.perform(get("/api/todos")
+                        .header("X-Request-Id", "client-42")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(header().string("X-Request-Id", "client-42"));
+
+        // Ids that could forge log lines are replaced
+        mockMvc.perform(get("/api/todos")
+                        .header("X-Request-Id", "bad id\nWARN forged")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(header().string("X-Request-Id", matchesPattern("[0-9a-f-]{36}")));
     }
 
     @Test
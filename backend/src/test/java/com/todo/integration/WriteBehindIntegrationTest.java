@@ -0,0 +1,258 @@
+package com.todo.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.dto.RegisterRequest;
+import com.todo.dto.TodoBatchOperation;
+import com.todo.dto.TodoBatchRequest;
+import com.todo.dto.TodoRequest;
+import com.todo.dto.TodoResponse;
+import com.todo.service.WriteBehindTodoStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Todo API with write-behind on: acknowledged writes must be visible to the next request, and
+ * journaled ids must not collide with the ones Hibernate hands out.
+ */
+@SpringBootTest(properties = {
+        "todo.db.path=./target/write-behind-test/tododb-${random.uuid}",
+        "todo.write-behind.enabled=true",
+        "todo.write-behind.journal-path=./target/write-behind-test/journal-${random.uuid}.log"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("persistent")
+class WriteBehindIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private WriteBehindTodoStore writeBehindStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String username;
+
+    private String jwtToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        RegisterRequest registerRequest = new RegisterRequest();
+        username = "writebehind" + System.nanoTime();
+        registerRequest.setUsername(username);
+        registerRequest.setEmail(registerRequest.getUsername() + "@test.com");
+        registerRequest.setPassword("password123");
+
+        MvcResult registration = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult registerResult = mockMvc.perform(asyncDispatch(registration))
+                .andExpect(status().isCreated())
+                .andReturn();
+        jwtToken = objectMapper.readTree(registerResult.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    @Test
+    void acknowledgedWrites_ShouldBeVisibleToTheNextRequest() throws Exception {
+        TodoRequest todoRequest = new TodoRequest();
+        todoRequest.setTitle("Journaled Todo");
+        todoRequest.setPriority("HIGH");
+
+        MvcResult created = mockMvc.perform(post("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(todoRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.version").value(0))
+                .andReturn();
+        long todoId = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(get("/api/todos/" + todoId)
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Journaled Todo"))
+                .andExpect(jsonPath("$.priority").value("HIGH"));
+
+        // Two updates in a row: the second starts from the first, journaled or applied
+        todoRequest.setCompleted(true);
+        mockMvc.perform(put("/api/todos/" + todoId)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("If-Match", "\"" + todoId + ".0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(todoRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1));
+        todoRequest.setTitle("Journaled Todo, renamed");
+        mockMvc.perform(put("/api/todos/" + todoId)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("If-Match", "\"" + todoId + ".1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(todoRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(2));
+        mockMvc.perform(put("/api/todos/" + todoId)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("If-Match", "\"" + todoId + ".1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(todoRequest)))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Journaled Todo, renamed"))
+                .andExpect(jsonPath("$[0].completed").value(true))
+                .andExpect(jsonPath("$[0].version").value(2));
+    }
+
+    @Test
+    void journaledAndBatchCreates_ShouldGetDistinctIds() throws Exception {
+        Set<Long> ids = new HashSet<>();
+        TodoRequest todoRequest = new TodoRequest();
+        TodoBatchOperation create = new TodoBatchOperation();
+        create.setOp(TodoBatchOperation.Type.CREATE);
+        create.setTodo(todoRequest);
+        TodoBatchRequest batch = new TodoBatchRequest();
+        batch.setOperations(List.of(create));
+        // Interleaved, so both paths draw blocks from the sequence in turn
+        for (int i = 0; i < 60; i++) {
+            todoRequest.setTitle("Journaled " + i);
+            MvcResult created = mockMvc.perform(post("/api/todos")
+                            .header("Authorization", "Bearer " + jwtToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(todoRequest)))
+                    .andExpect(status().isCreated())
+                    .andReturn();
+            ids.add(objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong());
+
+            if (i % 20 == 0) {
+                todoRequest.setTitle("Batch created " + i);
+                MvcResult batchResult = mockMvc.perform(post("/api/todos/batch")
+                                .header("Authorization", "Bearer " + jwtToken)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(batch)))
+                        .andExpect(status().isOk())
+                        .andReturn();
+                for (JsonNode result : objectMapper.readTree(batchResult.getResponse().getContentAsString()).get("results")) {
+                    ids.add(result.get("id").asLong());
+                }
+            }
+        }
+
+        assertEquals(63, ids.size());
+        mockMvc.perform(get("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(63));
+    }
+
+    @Test
+    void journaledUpdate_ShouldWaitForADirectWriteInProgress() throws Exception {
+        TodoRequest todoRequest = new TodoRequest();
+        todoRequest.setTitle("Soon deleted");
+        long todoId = create(todoRequest);
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+
+        writeBehindStore.beginDirectWrite(userId);
+        CompletableFuture<Integer> update;
+        try {
+            todoRequest.setTitle("Updated while being deleted");
+            String body = objectMapper.writeValueAsString(todoRequest);
+            update = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return mockMvc.perform(put("/api/todos/" + todoId)
+                                    .header("Authorization", "Bearer " + jwtToken)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(body))
+                            .andReturn().getResponse().getStatus();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            Thread.sleep(200);
+            assertFalse(update.isDone());
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    jdbcTemplate.update("DELETE FROM todos WHERE id = ?", todoId));
+        } finally {
+            writeBehindStore.endDirectWrite(userId);
+        }
+
+        // The update starts from the committed delete, instead of journaling over it
+        assertEquals(404, update.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void journaledUpdate_ShouldBeDiscardedIfTheTodoChangedDirectly() throws Exception {
+        TodoRequest todoRequest = new TodoRequest();
+        todoRequest.setTitle("Journaled");
+        long todoId = create(todoRequest);
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+        TodoResponse before = objectMapper.readValue(mockMvc.perform(get("/api/todos/" + todoId)
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), TodoResponse.class);
+        double discardedBefore = meterRegistry.get("todo.write-behind.discarded").counter().count();
+
+        // A writer that bypassed the journal, committing between the read and the update
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> jdbcTemplate.update(
+                "UPDATE todos SET title = 'Changed directly', version = version + 1 WHERE id = ?", todoId));
+        todoRequest.setTitle("Journaled, renamed");
+        todoRequest.setCompleted(false);
+        todoRequest.setPriority("MEDIUM");
+        writeBehindStore.update(userId, before, todoRequest);
+        writeBehindStore.awaitApplied(userId);
+
+        assertEquals(discardedBefore + 1, meterRegistry.get("todo.write-behind.discarded").counter().count());
+        mockMvc.perform(get("/api/todos/" + todoId)
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Changed directly"))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    private long create(TodoRequest todoRequest) throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/todos")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(todoRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+    }
+}
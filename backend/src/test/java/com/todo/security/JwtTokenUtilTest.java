@@ -0,0 +1,93 @@
+package com.todo.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenUtilTest {
+
+    private static final String SECRET =
+            "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437772141442A472D4A614E645267556B58703273357638792F423F4528482B4D6251";
+
+    private JwtTokenUtil jwtTokenUtil;
+
+    private UserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenUtil = newTokenUtil(3600000L);
+        userDetails = new User("testuser", "password", Collections.emptyList());
+    }
+
+    private JwtTokenUtil newTokenUtil(long expiration) {
+        JwtTokenUtil util = new JwtTokenUtil();
+        ReflectionTestUtils.setField(util, "secret", SECRET);
+        ReflectionTestUtils.setField(util, "expiration", expiration);
+        ReflectionTestUtils.setField(util, "cacheMaxSize", 100L);
+        ReflectionTestUtils.setField(util, "meterRegistry", new SimpleMeterRegistry());
+        util.init();
+        return util;
+    }
+
+    @Test
+    void getVerifiedClaims_ShouldReturnSameClaimsFromCache() {
+        String token = jwtTokenUtil.generateToken(userDetails);
+
+        Claims first = jwtTokenUtil.getVerifiedClaims(token);
+        Claims second = jwtTokenUtil.getVerifiedClaims(token);
+
+        assertEquals("testuser", first.getSubject());
+        assertSame(first, second);
+        assertTrue(jwtTokenUtil.validateToken(token, userDetails));
+    }
+
+    @Test
+    void getVerifiedClaims_ShouldRejectTamperedToken() {
+        String token = jwtTokenUtil.generateToken(userDetails);
+        String tampered = token.substring(0, token.length() - 4) + "AAAA";
+
+        assertThrows(SignatureException.class, () -> jwtTokenUtil.getVerifiedClaims(tampered));
+    }
+
+    @Test
+    void getVerifiedClaims_ShouldRejectExpiredToken() {
+        JwtTokenUtil expiringUtil = newTokenUtil(-1000L);
+        String token = expiringUtil.generateToken(userDetails);
+
+        assertThrows(ExpiredJwtException.class, () -> expiringUtil.getVerifiedClaims(token));
+    }
+
+    @Test
+    void validateToken_ShouldRejectTokenForOtherUser() {
+        String token = jwtTokenUtil.generateToken(userDetails);
+        UserDetails otherUser = new User("otheruser", "password", Collections.emptyList());
+
+        assertFalse(jwtTokenUtil.validateToken(token, otherUser));
+    }
+
+    @Test
+    void generateAccessToken_ShouldCarryUserIdRoleAndTokenVersion() {
+        com.todo.model.User user = new com.todo.model.User();
+        user.setId(42L);
+        user.setUsername("testuser");
+        user.setRole("USER");
+        user.setTokenVersion(3L);
+
+        Claims claims = jwtTokenUtil.getVerifiedClaims(jwtTokenUtil.generateAccessToken(user));
+
+        assertEquals("testuser", claims.getSubject());
+        assertEquals(42L, claims.get(JwtTokenUtil.USER_ID_CLAIM, Long.class));
+        assertEquals("USER", claims.get(JwtTokenUtil.ROLE_CLAIM, String.class));
+        assertEquals(3L, claims.get(JwtTokenUtil.TOKEN_VERSION_CLAIM, Long.class));
+    }
+}
@@ -0,0 +1,106 @@
+package com.todo.security;
+
+import com.todo.exception.RateLimitedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void tokenBucket_ShouldAllowBurstThenOneRequestPerInterval() {
+        TokenBucket bucket = new TokenBucket();
+        long interval = TimeUnit.SECONDS.toNanos(1);
+        long now = 1_000_000_000L;
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(now, interval, 3));
+        }
+        assertEquals(interval, bucket.tryAcquire(now, interval, 3));
+        assertEquals(interval / 2, bucket.tryAcquire(now + interval / 2, interval, 3));
+
+        assertEquals(0, bucket.tryAcquire(now + interval, interval, 3));
+        assertTrue(bucket.tryAcquire(now + interval, interval, 3) > 0);
+        // Idle long enough to refill completely, but not beyond the burst
+        long later = now + 10 * interval;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(later, interval, 3));
+        }
+        assertTrue(bucket.tryAcquire(later, interval, 3) > 0);
+    }
+
+    @Test
+    void tokenBucket_ShouldNotHandOutMoreThanBurstUnderContention() throws Exception {
+        TokenBucket bucket = new TokenBucket();
+        long now = System.nanoTime();
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 1000; i++) {
+                    if (bucket.tryAcquire(now, TimeUnit.HOURS.toNanos(1), 100) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(100, granted.get());
+    }
+
+    @Test
+    void acquire_ShouldRejectPerKeyWithRetryAfterAndCountDecisions() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("todo.rate-limit.auth.user.burst", "2")
+                .withProperty("todo.rate-limit.auth.user.per-minute", "1");
+        RateLimiter limiter = new RateLimiter(true, 100, environment, meterRegistry);
+
+        limiter.acquire(RateLimiter.AUTH_USER, "alice");
+        limiter.acquire(RateLimiter.AUTH_USER, "Alice");
+        RateLimitedException rejected = assertThrows(RateLimitedException.class,
+                () -> limiter.acquire(RateLimiter.AUTH_USER, "ALICE"));
+        limiter.acquire(RateLimiter.AUTH_USER, "bob");
+
+        assertEquals(429, rejected.getStatus().value());
+        assertTrue(rejected.getRetryAfterSeconds() > 0 && rejected.getRetryAfterSeconds() <= 60);
+        assertEquals(3, meterRegistry.get("todo.rate-limit.requests")
+                .tags("limit", RateLimiter.AUTH_USER, "outcome", "allowed").counter().count());
+        assertEquals(1, meterRegistry.get("todo.rate-limit.requests")
+                .tags("limit", RateLimiter.AUTH_USER, "outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void tryAcquire_ShouldAllowEverythingWhenDisabledOrUnlimited() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("todo.rate-limit.api.ip.per-minute", "0");
+        RateLimiter limiter = new RateLimiter(true, 100, environment, meterRegistry);
+        RateLimiter disabled = new RateLimiter(false, 100, new MockEnvironment(), new SimpleMeterRegistry());
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, limiter.tryAcquire(RateLimiter.API_IP, "10.0.0.1"));
+            assertEquals(0, disabled.tryAcquire(RateLimiter.AUTH_USER, "alice"));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.todo.security;
+
+import com.todo.event.TokensRevokedEvent;
+import com.todo.model.User;
+import com.todo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationsTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    private final TokenRevocations revocations = new TokenRevocations(userRepository, eventPublisher,
+            Duration.ofMinutes(1));
+
+    @Test
+    void isRevoked_ShouldRejectTokensOlderThanTheUsersVersion() {
+        when(userRepository.findWithRevokedTokens()).thenReturn(List.of(user(1L, 2L, true)));
+        revocations.load();
+
+        assertTrue(revocations.isRevoked(1L, 1L));
+        assertFalse(revocations.isRevoked(1L, 2L));
+        assertFalse(revocations.isRevoked(2L, 0L));
+
+        revocations.update(user(1L, 3L, true));
+        assertTrue(revocations.isRevoked(1L, 2L));
+    }
+
+    @Test
+    void isRevoked_ShouldRejectEveryTokenOfDisabledOrRemovedUsers() {
+        revocations.update(user(1L, 0L, false));
+        revocations.removed(2L);
+
+        assertTrue(revocations.isRevoked(1L, 0L));
+        assertTrue(revocations.isRevoked(2L, 5L));
+
+        revocations.update(user(1L, 0L, true));
+        assertFalse(revocations.isRevoked(1L, 0L));
+    }
+
+    @Test
+    void update_ShouldPublishOnlyWhenTokensAreNewlyRevoked() {
+        when(userRepository.findWithRevokedTokens()).thenReturn(List.of(user(1L, 2L, true)));
+        revocations.load();
+        revocations.update(user(1L, 2L, true));
+        verifyNoInteractions(eventPublisher);
+
+        revocations.update(user(1L, 3L, true));
+        revocations.update(user(2L, 0L, false));
+        revocations.removed(2L);
+        verify(eventPublisher).publishEvent(new TokensRevokedEvent(1L));
+        verify(eventPublisher, times(1)).publishEvent(new TokensRevokedEvent(2L));
+    }
+
+    @Test
+    void refresh_ShouldPickUpRevocationsMadeByOtherInstances() {
+        revocations.load();
+        when(userRepository.findByUpdatedAtGreaterThanEqual(any())).thenReturn(List.of(user(1L, 1L, true)));
+
+        revocations.refresh();
+
+        assertTrue(revocations.isRevoked(1L, 0L));
+        verify(eventPublisher).publishEvent(new TokensRevokedEvent(1L));
+
+        // The next read starts from the previous one, less the overlap
+        revocations.refresh();
+        verify(userRepository, times(2)).findByUpdatedAtGreaterThanEqual(argThat(since ->
+                since.isBefore(LocalDateTime.now().minusSeconds(59))));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    private static User user(Long id, Long tokenVersion, boolean enabled) {
+        User user = new User();
+        user.setId(id);
+        user.setTokenVersion(tokenVersion);
+        user.setEnabled(enabled);
+        return user;
+    }
+}
@@ -0,0 +1,72 @@
+package com.todo.security;
+
+import com.todo.model.User;
+import com.todo.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserPrincipalCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserPrincipalCache userPrincipalCache;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        userPrincipalCache = new UserPrincipalCache(userRepository, 100, Duration.ofMinutes(10));
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+        testUser.setRole("USER");
+        testUser.setEnabled(true);
+    }
+
+    @Test
+    void get_ShouldLoadUserOnlyOnce() {
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        TodoUserPrincipal first = userPrincipalCache.get("testuser");
+        TodoUserPrincipal second = userPrincipalCache.get("testuser");
+
+        assertSame(first, second);
+        assertEquals(1L, first.getId());
+        assertTrue(first.isEnabled());
+        verify(userRepository, times(1)).findByUsername("testuser");
+    }
+
+    @Test
+    void invalidate_ShouldReloadChangedUser() {
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        userPrincipalCache.get("testuser");
+
+        testUser.setEnabled(false);
+        testUser.setRole("ADMIN");
+        userPrincipalCache.invalidate("testuser");
+        TodoUserPrincipal reloaded = userPrincipalCache.get("testuser");
+
+        assertFalse(reloaded.isEnabled());
+        assertEquals("ROLE_ADMIN", reloaded.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void get_ShouldThrowWhenUserDoesNotExist() {
+        when(userRepository.findByUsername("missing")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userPrincipalCache.get("missing"));
+    }
+}
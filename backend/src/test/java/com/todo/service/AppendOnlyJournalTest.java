@@ -0,0 +1,117 @@
+package com.todo.service;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppendOnlyJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final List<AppendOnlyJournal.Record<String>> durable = new CopyOnWriteArrayList<>();
+
+    private AppendOnlyJournal<String> journal;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void append_ShouldCompleteAfterGroupIsWrittenInOrder() throws Exception {
+        journal = open(0);
+        List<CompletableFuture<Long>> written = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            written.add(journal.append("todo-" + i));
+        }
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i + 1, written.get(i).get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(100, durable.size());
+        assertEquals("todo-99", durable.get(99).value());
+        // Concurrent appends share fsyncs
+        long fsyncs = meterRegistry.get("test.fsync").timer().count();
+        assertTrue(fsyncs >= 1 && fsyncs < 100, "fsyncs: " + fsyncs);
+    }
+
+    @Test
+    void reopen_ShouldRecoverRecordsAfterCheckpointAndContinueSequence() throws Exception {
+        journal = open(0);
+        for (int i = 1; i <= 3; i++) {
+            journal.append("todo-" + i).get(5, TimeUnit.SECONDS);
+        }
+        journal.close();
+
+        journal = open(1);
+
+        assertEquals(List.of(2L, 3L), journal.recovered().stream().map(AppendOnlyJournal.Record::seq).toList());
+        assertEquals("todo-2", journal.recovered().get(0).value());
+        assertEquals(4L, journal.append("todo-4").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void reopen_ShouldCutOffTornRecordAtTheTail() throws Exception {
+        journal = open(0);
+        journal.append("complete").get(5, TimeUnit.SECONDS);
+        journal.close();
+        long intact = Files.size(journalFile());
+        // A record whose write was interrupted: header and part of the payload only
+        Files.write(journalFile(), new byte[]{0, 0, 0, 20, 0, 0, 0, 0, 0, 0, 0, 2, 'x'}, StandardOpenOption.APPEND);
+
+        journal = open(0);
+
+        assertEquals(List.of("complete"), journal.recovered().stream().map(AppendOnlyJournal.Record::value).toList());
+        assertEquals(intact, Files.size(journalFile()));
+        assertEquals(2L, journal.append("next").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void checkpoint_ShouldTruncateOnceEverythingIsConsumed() throws Exception {
+        journal = open(0);
+        long seq = journal.append("todo").get(5, TimeUnit.SECONDS);
+        assertTrue(Files.size(journalFile()) > 0);
+
+        journal.checkpoint(seq);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (Files.size(journalFile()) > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, Files.size(journalFile()));
+        assertEquals(seq + 1, journal.append("after truncation").get(5, TimeUnit.SECONDS));
+    }
+
+    private AppendOnlyJournal<String> open(long consumedSeq) throws IOException {
+        return new AppendOnlyJournal<>(journalFile(), consumedSeq,
+                value -> value.getBytes(StandardCharsets.UTF_8),
+                bytes -> new String(bytes, StandardCharsets.UTF_8),
+                durable::addAll, Duration.ofMillis(2), 1 << 20,
+                Timer.builder("test.fsync").register(meterRegistry));
+    }
+
+    private Path journalFile() {
+        return directory.resolve("journal.log");
+    }
+}
@@ -0,0 +1,96 @@
+package com.todo.service;
+
+import com.todo.dto.RegisterRequest;
+import com.todo.exception.ConflictException;
+import com.todo.model.User;
+import com.todo.repository.UserRepository;
+import com.todo.security.PasswordHashingExecutor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TransactionStatus transactionStatus;
+
+    @Mock
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @InjectMocks
+    private AuthService authService;
+
+    private RegisterRequest request;
+
+    @BeforeEach
+    void setUp() {
+        // Runs the hashing step on the calling thread
+        when(passwordHashingExecutor.submit(any(), any())).thenAnswer(invocation ->
+                CompletableFuture.supplyAsync(invocation.<Supplier<?>>getArgument(1), Runnable::run));
+        request = new RegisterRequest();
+        request.setUsername("racer");
+        request.setEmail("racer@test.com");
+        request.setPassword("password123");
+        when(passwordEncoder.encode("password123")).thenReturn("hash");
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+    }
+
+    @Test
+    void register_ShouldReportALostUsernameRaceAsConflict() {
+        // Free when checked, taken by the time the user is saved
+        when(userRepository.existsByUsername("racer")).thenReturn(false, true);
+        when(userRepository.existsByEmail("racer@test.com")).thenReturn(false);
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("idx_users_username"));
+
+        ExecutionException ex = assertThrows(ExecutionException.class,
+                () -> authService.register(request).get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(ConflictException.class, ex.getCause());
+        assertEquals("Username already exists", ex.getCause().getMessage());
+        verify(transactionManager).rollback(transactionStatus);
+    }
+
+    @Test
+    void register_ShouldRollBackTheUserWhenNoRefreshTokenIsIssued() {
+        when(userRepository.existsByUsername("racer")).thenReturn(false);
+        when(userRepository.existsByEmail("racer@test.com")).thenReturn(false);
+        when(refreshTokenService.issue(any())).thenThrow(new IllegalStateException("issue failed"));
+
+        ExecutionException ex = assertThrows(ExecutionException.class,
+                () -> authService.register(request).get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(IllegalStateException.class, ex.getCause());
+        verify(userRepository).save(any(User.class));
+        verify(transactionManager).rollback(transactionStatus);
+        verify(transactionManager, never()).commit(any());
+    }
+}
@@ -0,0 +1,27 @@
+package com.todo.service;
+
+import com.todo.exception.PayloadTooLargeException;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SizeLimitedInputStreamTest {
+
+    @Test
+    void read_ShouldAllowUpToTheLimit() throws Exception {
+        InputStream in = new SizeLimitedInputStream(new ByteArrayInputStream(new byte[10]), DataSize.ofBytes(10));
+
+        assertEquals(10, in.readAllBytes().length);
+    }
+
+    @Test
+    void read_ShouldFailPastTheLimit() {
+        InputStream in = new SizeLimitedInputStream(new ByteArrayInputStream(new byte[11]), DataSize.ofBytes(10));
+
+        assertThrows(PayloadTooLargeException.class, in::readAllBytes);
+    }
+}
@@ -0,0 +1,64 @@
+package com.todo.service;
+
+import com.todo.dto.TodoRequest;
+import com.todo.dto.TodoResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoCsvTest {
+
+    @Test
+    void write_ShouldNeutraliseFieldsASpreadsheetWouldRunAsFormulas() throws Exception {
+        StringWriter out = new StringWriter();
+        TodoCsv.write(out, todo("=HYPERLINK(\"http://evil\",\"x\")", "@SUM(A1)"));
+
+        String csv = out.toString();
+        assertTrue(csv.contains(",\"'=HYPERLINK(\"\"http://evil\"\",\"\"x\"\")\","), csv);
+        assertTrue(csv.contains(",\"'@SUM(A1)\","), csv);
+
+        for (String title : List.of("+1", "-1", "\tcmd", "\rcmd")) {
+            StringWriter single = new StringWriter();
+            TodoCsv.write(single, todo(title, null));
+            assertTrue(single.toString().contains(",\"'" + title + "\","), title);
+        }
+    }
+
+    @Test
+    void write_ShouldLeaveOrdinaryFieldsAlone() throws Exception {
+        StringWriter out = new StringWriter();
+        TodoCsv.write(out, todo("Buy milk", "1 - 2 = -1"));
+
+        assertTrue(out.toString().startsWith("7,Buy milk,1 - 2 = -1,false,MEDIUM,"), out.toString());
+    }
+
+    @Test
+    void toRequest_ShouldReadNeutralisedFieldsBackUnchanged() throws Exception {
+        StringWriter out = new StringWriter();
+        TodoCsv.writeHeader(out);
+        TodoCsv.write(out, todo("=1+2", "'-already quoted"));
+
+        TodoCsv.RecordReader reader = new TodoCsv.RecordReader(new StringReader(out.toString()), 10_000);
+        List<String> columns = reader.read();
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            header.put(columns.get(i), i);
+        }
+        TodoRequest request = TodoCsv.toRequest(header, reader.read());
+
+        assertEquals("=1+2", request.getTitle());
+        assertEquals("'-already quoted", request.getDescription());
+    }
+
+    private static TodoResponse todo(String title, String description) {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+        return new TodoResponse(7L, title, description, false, "MEDIUM", null, now, now, 0L);
+    }
+}
@@ -0,0 +1,51 @@
+package com.todo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoExportTest {
+
+    private final Semaphore permits = new Semaphore(1);
+
+    @Test
+    void writeTo_ShouldReleaseThePermitOnceWritten() throws Exception {
+        permits.acquire();
+        TodoExport export = new TodoExport(out -> out.write('x'), permits);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        export.writeTo(out);
+        export.abandon();
+
+        assertEquals(1, out.size());
+        assertEquals(1, permits.availablePermits());
+    }
+
+    @Test
+    void writeTo_ShouldReleaseThePermitWhenWritingFails() throws Exception {
+        permits.acquire();
+        TodoExport export = new TodoExport(out -> {
+            throw new IOException("client went away");
+        }, permits);
+
+        assertThrows(IOException.class, () -> export.writeTo(new ByteArrayOutputStream()));
+        assertEquals(1, permits.availablePermits());
+    }
+
+    @Test
+    void abandon_ShouldReleaseThePermitOfAnExportThatNeverStarted() throws Exception {
+        permits.acquire();
+        TodoExport export = new TodoExport(out -> out.write('x'), permits);
+
+        export.abandon();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        export.writeTo(out);
+
+        assertEquals(0, out.size());
+        assertEquals(1, permits.availablePermits());
+    }
+}
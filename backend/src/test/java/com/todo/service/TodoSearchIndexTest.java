@@ -0,0 +1,114 @@
+package com.todo.service;
+
+import com.todo.dto.TodoResponse;
+import com.todo.event.TodoChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoSearchIndexTest {
+
+    private static final Long USER_ID = 1L;
+
+    private final TodoSearchIndex index = new TodoSearchIndex(Duration.ofMinutes(30));
+
+    @Test
+    void search_ShouldMatchPrefixesAndRankByTermWeight() {
+        List<TodoResponse> todos = List.of(
+                todo(1L, "Buy groceries", "milk and bread"),
+                todo(2L, "Call mom", "ask about the groceries list"),
+                todo(3L, "Groceries", "weekly shop"),
+                todo(4L, "Grow tomatoes", null));
+
+        // The rarer term ranks first, then title matches ahead of description matches
+        assertEquals(List.of(4L, 3L, 1L, 2L), ids(index.search(USER_ID, "gro", 10, () -> todos)));
+        assertEquals(List.of(3L, 1L, 2L), ids(index.search(USER_ID, "groceries", 10, () -> todos)));
+        assertEquals(List.of(3L), ids(index.search(USER_ID, "groceries", 1, () -> todos)));
+        // Every query term must match
+        assertEquals(List.of(1L), ids(index.search(USER_ID, "groc MILK", 10, () -> todos)));
+        assertEquals(List.of(), ids(index.search(USER_ID, "groceries tomatoes", 10, () -> todos)));
+    }
+
+    @Test
+    void search_ShouldRankExactMatchesAheadOfPrefixMatches() {
+        List<TodoResponse> todos = List.of(todo(1L, "Planning meeting", null), todo(2L, "Plan trip", null));
+
+        assertEquals(List.of(2L, 1L), ids(index.search(USER_ID, "plan", 10, () -> todos)));
+    }
+
+    @Test
+    void search_ShouldIgnoreCaseAndAccents() {
+        List<TodoResponse> todos = List.of(todo(1L, "Réserver le Café", null));
+
+        assertEquals(List.of(1L), ids(index.search(USER_ID, "cafe reserv", 10, () -> todos)));
+    }
+
+    @Test
+    void onTodoChanged_ShouldUpdateBuiltIndexWithoutReloading() {
+        AtomicInteger loads = new AtomicInteger();
+        List<TodoResponse> todos = List.of(todo(1L, "Write report", null));
+        index.search(USER_ID, "report", 10, () -> {
+            loads.incrementAndGet();
+            return todos;
+        });
+
+        index.onTodoChanged(TodoChangedEvent.created(USER_ID, todo(2L, "Review report", null)));
+        TodoResponse renamed = todo(1L, "Write summary", null);
+        renamed.setVersion(1L);
+        index.onTodoChanged(TodoChangedEvent.updated(USER_ID, renamed));
+        index.onTodoChanged(TodoChangedEvent.deleted(USER_ID, 2L));
+        index.onTodoChanged(TodoChangedEvent.created(2L, todo(3L, "Other user's report", null)));
+
+        assertEquals(List.of(), ids(index.search(USER_ID, "report", 10, List::of)));
+        assertEquals(List.of(1L), ids(index.search(USER_ID, "summary", 10, List::of)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void search_ShouldApplyChangesCommittedWhileBuilding() {
+        List<TodoResponse> loaded = List.of(todo(1L, "Stale title", null));
+
+        List<TodoResponse> results = index.search(USER_ID, "fresh", 10, () -> {
+            // Commits after the load has read the database, before the index is installed
+            TodoResponse updated = todo(1L, "Fresh title", null);
+            updated.setVersion(1L);
+            index.onTodoChanged(TodoChangedEvent.updated(USER_ID, updated));
+            return loaded;
+        });
+
+        assertEquals(List.of(1L), ids(results));
+        assertEquals(List.of(), ids(index.search(USER_ID, "stale", 10, List::of)));
+    }
+
+    @Test
+    void evictIdle_ShouldDropUnusedIndexes() {
+        TodoSearchIndex shortLived = new TodoSearchIndex(Duration.ZERO);
+        AtomicInteger loads = new AtomicInteger();
+        shortLived.search(USER_ID, "x", 10, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+
+        shortLived.evictIdle();
+        shortLived.search(USER_ID, "x", 10, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+
+        assertEquals(2, loads.get());
+    }
+
+    private static TodoResponse todo(Long id, String title, String description) {
+        LocalDateTime now = LocalDateTime.now();
+        return new TodoResponse(id, title, description, false, "MEDIUM", null, now, now, 0L);
+    }
+
+    private static List<Long> ids(List<TodoResponse> todos) {
+        return todos.stream().map(TodoResponse::getId).toList();
+    }
+}
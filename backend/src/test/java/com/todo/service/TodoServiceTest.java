@@ -1,29 +1,47 @@
 package com.todo.service;
 
+import com.todo.dto.TodoCursor;
+import com.todo.dto.TodoPage;
+import com.todo.dto.TodoPatch;
+import com.todo.dto.TodoQuery;
 import com.todo.dto.TodoRequest;
+import com.todo.dto.TodoSortField;
 import com.todo.dto.TodoResponse;
 import com.todo.model.Todo;
 import com.todo.model.User;
 import com.todo.repository.TodoRepository;
 import com.todo.repository.UserRepository;
+import com.todo.security.TodoUserPrincipal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import com.todo.event.TodoChangedEvent;
+import com.todo.exception.PreconditionFailedException;
+import com.todo.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +53,18 @@ class TodoServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TodoChangeTracker changeTracker;
+
+    @Spy
+    private TodoListCache listCache = new TodoListCache(1000, Duration.ofMinutes(5), new SimpleMeterRegistry());
+
+    @Mock
+    private WriteBehindTodoStore writeBehind;
+
     @Mock
     private SecurityContext securityContext;
 
@@ -46,6 +76,7 @@ class TodoServiceTest {
 
     private User testUser;
     private Todo testTodo;
+    private TodoResponse testResponse;
 
     @BeforeEach
     void setUp() {
@@ -63,42 +94,114 @@ class TodoServiceTest {
         testTodo.setUser(testUser);
         testTodo.setCreatedAt(LocalDateTime.now());
         testTodo.setUpdatedAt(LocalDateTime.now());
+        testTodo.setVersion(0L);
+
+        testResponse = new TodoResponse(1L, "Test Todo", "Test Description", false, "MEDIUM", null,
+                testTodo.getCreatedAt(), testTodo.getUpdatedAt(), 0L);
+
+        ReflectionTestUtils.setField(todoService, "defaultPageSize", 100);
+        ReflectionTestUtils.setField(todoService, "maxPageSize", 500);
 
         when(securityContext.getAuthentication()).thenReturn(authentication);
         SecurityContextHolder.setContext(securityContext);
+        when(authentication.getPrincipal()).thenReturn(new TodoUserPrincipal(1L, "testuser", "USER", true));
+    }
+
+    @Test
+    void getTodos_ShouldReturnTheUsersTodos() {
+        TodoQuery query = new TodoQuery();
+        when(todoRepository.findPage(1L, query, 101)).thenReturn(Arrays.asList(testResponse));
+
+        TodoPage page = todoService.getTodos(query);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals("Test Todo", page.getItems().get(0).getTitle());
+        assertNull(page.getNextCursor());
+        verify(todoRepository, times(1)).findPage(1L, query, 101);
+    }
+
+    @Test
+    void getTodos_ShouldFallBackToUsernameLookupForOtherPrincipals() {
+        when(authentication.getPrincipal()).thenReturn("testuser");
         when(authentication.getName()).thenReturn("testuser");
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        TodoQuery query = new TodoQuery();
+        when(todoRepository.findPage(1L, query, 101)).thenReturn(Arrays.asList(testResponse));
+
+        TodoPage page = todoService.getTodos(query);
+
+        assertEquals(1, page.getItems().size());
+    }
+
+    @Test
+    void getTodos_ShouldReturnCursorWhenMoreRowsExist() {
+        TodoResponse secondResponse = new TodoResponse(2L, "Second Todo", null, false, "HIGH", null,
+                testResponse.getCreatedAt().plusMinutes(1), testResponse.getUpdatedAt(), 0L);
+        TodoQuery query = new TodoQuery();
+        query.setLimit(1);
+        when(todoRepository.findPage(1L, query, 2)).thenReturn(Arrays.asList(testResponse, secondResponse));
+
+        TodoPage page = todoService.getTodos(query);
+
+        assertEquals(1, page.getItems().size());
+        TodoCursor cursor = TodoCursor.decode(page.getNextCursor());
+        assertEquals(TodoSortField.CREATED_AT, cursor.sort());
+        assertEquals(testResponse.getCreatedAt(), cursor.value());
+        assertEquals(1L, cursor.id());
     }
 
     @Test
-    void getAllTodos_ShouldReturnAllTodosForUser() {
-        List<Todo> todos = Arrays.asList(testTodo);
-        when(todoRepository.findByUserId(1L)).thenReturn(todos);
+    void getTodos_ShouldServeRepeatedReadsFromCacheUntilTheListVersionChanges() {
+        TodoQuery query = new TodoQuery();
+        when(todoRepository.findPage(1L, query, 101)).thenReturn(Arrays.asList(testResponse));
+
+        todoService.getTodos(query);
+        todoService.getTodos(query);
+        verify(todoRepository, times(1)).findPage(1L, query, 101);
+
+        // A committed write, from this instance or another, bumps the version in the database
+        when(changeTracker.listVersion(1L)).thenReturn(1L);
+        todoService.getTodos(query);
+        verify(todoRepository, times(2)).findPage(1L, query, 101);
+    }
 
-        List<TodoResponse> result = todoService.getAllTodos();
+    @Test
+    void getTodos_ShouldKeyTheCacheOnTheGivenListVersion() {
+        TodoQuery query = new TodoQuery();
+        when(todoRepository.findPage(1L, query, 101)).thenReturn(Arrays.asList(testResponse));
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals("Test Todo", result.get(0).getTitle());
-        verify(todoRepository, times(1)).findByUserId(1L);
+        todoService.getTodos(query, 7L);
+        todoService.getTodos(query, 7L);
+
+        verify(todoRepository, times(1)).findPage(1L, query, 101);
+        verify(changeTracker, never()).listVersion(anyLong());
+    }
+
+    @Test
+    void getTodos_ShouldRejectCursorFromAnotherSortOrder() {
+        TodoQuery query = new TodoQuery();
+        query.setSort(TodoSortField.DUE_DATE);
+        query.setAfter(new TodoCursor(TodoSortField.CREATED_AT, false, LocalDateTime.now(), 1L));
+
+        assertThrows(IllegalArgumentException.class, () -> todoService.getTodos(query));
     }
 
     @Test
     void getTodoById_ShouldReturnTodo() {
-        when(todoRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testTodo));
+        when(todoRepository.findResponseByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testResponse));
 
         TodoResponse result = todoService.getTodoById(1L);
 
         assertNotNull(result);
         assertEquals("Test Todo", result.getTitle());
-        verify(todoRepository, times(1)).findByIdAndUserId(1L, 1L);
+        verify(todoRepository, times(1)).findResponseByIdAndUserId(1L, 1L);
     }
 
     @Test
     void getTodoById_ShouldThrowExceptionWhenNotFound() {
-        when(todoRepository.findByIdAndUserId(anyLong(), anyLong())).thenReturn(Optional.empty());
+        when(todoRepository.findResponseByIdAndUserId(anyLong(), anyLong())).thenReturn(Optional.empty());
 
-        assertThrows(RuntimeException.class, () -> todoService.getTodoById(999L));
+        assertThrows(ResourceNotFoundException.class, () -> todoService.getTodoById(999L));
     }
 
     @Test
@@ -109,12 +212,14 @@ class TodoServiceTest {
         request.setCompleted(false);
         request.setPriority("HIGH");
 
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(todoRepository.save(any(Todo.class))).thenReturn(testTodo);
 
         TodoResponse result = todoService.createTodo(request);
 
         assertNotNull(result);
         verify(todoRepository, times(1)).save(any(Todo.class));
+        verify(userRepository, never()).findByUsername(any());
     }
 
     @Test
@@ -125,21 +230,79 @@ class TodoServiceTest {
         request.setCompleted(true);
         request.setPriority("LOW");
 
-        when(todoRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testTodo));
-        when(todoRepository.save(any(Todo.class))).thenReturn(testTodo);
+        when(todoRepository.updateFields(eq(1L), eq(1L), anyMap(), isNull(), any())).thenReturn(1);
+        when(todoRepository.findResponseByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testResponse));
 
-        TodoResponse result = todoService.updateTodo(1L, request);
+        TodoResponse result = todoService.updateTodo(1L, request, null);
 
-        assertNotNull(result);
-        verify(todoRepository, times(1)).save(any(Todo.class));
+        assertSame(testResponse, result);
+        verify(todoRepository, never()).findByIdAndUserId(anyLong(), anyLong());
+        verify(eventPublisher).publishEvent(TodoChangedEvent.updated(1L, testResponse));
+    }
+
+    @Test
+    void updateTodo_ShouldRejectStaleVersion() {
+        TodoRequest request = new TodoRequest();
+        request.setTitle("Updated Todo");
+        when(todoRepository.updateFields(eq(1L), eq(1L), anyMap(), eq(2L), any())).thenReturn(0);
+        when(todoRepository.findVersionByIdAndUserId(1L, 1L)).thenReturn(Optional.of(3L));
+
+        assertThrows(PreconditionFailedException.class, () -> todoService.updateTodo(1L, request, 2L));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void patchTodo_ShouldUpdateOnlyPresentFields() {
+        TodoPatch patch = new TodoPatch();
+        patch.setCompleted(true);
+        when(todoRepository.updateFields(eq(1L), eq(1L), anyMap(), isNull(), any())).thenReturn(1);
+        when(todoRepository.findResponseByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testResponse));
+
+        todoService.patchTodo(1L, patch, null);
+
+        verify(todoRepository).updateFields(eq(1L), eq(1L), eq(Map.of("completed", true)), isNull(), any());
+    }
+
+    @Test
+    void patchTodo_ShouldReportMissingTodo() {
+        TodoPatch patch = new TodoPatch();
+        patch.setCompleted(true);
+        when(todoRepository.updateFields(eq(99L), eq(1L), anyMap(), isNull(), any())).thenReturn(0);
+        when(todoRepository.findVersionByIdAndUserId(99L, 1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> todoService.patchTodo(99L, patch, null));
     }
 
     @Test
     void deleteTodo_ShouldDeleteTodo() {
-        when(todoRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testTodo));
+        when(todoRepository.deleteByIdAndUserId(1L, 1L)).thenReturn(1);
+
+        todoService.deleteTodo(1L, null);
+
+        verify(todoRepository, never()).findByIdAndUserId(anyLong(), anyLong());
+        verify(eventPublisher).publishEvent(TodoChangedEvent.deleted(1L, 1L));
+    }
+
+    @Test
+    void deleteTodo_ShouldTellMissingTodoFromStaleVersion() {
+        when(todoRepository.deleteByIdAndUserIdAndVersion(1L, 1L, 2L)).thenReturn(0);
+        when(todoRepository.findVersionByIdAndUserId(1L, 1L)).thenReturn(Optional.of(3L));
+        when(todoRepository.deleteByIdAndUserId(99L, 1L)).thenReturn(0);
+        when(todoRepository.findVersionByIdAndUserId(99L, 1L)).thenReturn(Optional.empty());
+
+        assertThrows(PreconditionFailedException.class, () -> todoService.deleteTodo(1L, 2L));
+        assertThrows(ResourceNotFoundException.class, () -> todoService.deleteTodo(99L, null));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void deleteTodosByStatus_ShouldDeleteAndPublishEachTodo() {
+        when(todoRepository.findIdsByUserIdAndCompleted(1L, true)).thenReturn(List.of(4L, 7L));
+        when(todoRepository.deleteByUserIdAndIdIn(1L, List.of(4L, 7L))).thenReturn(2);
 
-        todoService.deleteTodo(1L);
+        assertEquals(2, todoService.deleteTodosByStatus(true));
 
-        verify(todoRepository, times(1)).delete(testTodo);
+        verify(eventPublisher).publishEvent(TodoChangedEvent.deleted(1L, 4L));
+        verify(eventPublisher).publishEvent(TodoChangedEvent.deleted(1L, 7L));
     }
 }
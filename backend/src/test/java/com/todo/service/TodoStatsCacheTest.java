@@ -0,0 +1,122 @@
+package com.todo.service;
+
+import com.todo.dto.TodoCountRow;
+import com.todo.dto.TodoResponse;
+import com.todo.dto.TodoStats;
+import com.todo.event.TodoChangedEvent;
+import com.todo.repository.TodoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class TodoStatsCacheTest {
+
+    private static final Long USER_ID = 1L;
+
+    private final TodoRepository todoRepository = mock(TodoRepository.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final TodoStatsCache cache = new TodoStatsCache(todoRepository, Duration.ofMinutes(30), meterRegistry);
+
+    @Test
+    void get_ShouldCountLoadedTodos() {
+        LocalDateTime now = LocalDateTime.now();
+        when(todoRepository.findResponsesByUserId(USER_ID)).thenReturn(List.of(
+                todo(1L, false, "HIGH", now.minusDays(1)),
+                todo(2L, true, "HIGH", now.minusDays(1)),
+                todo(3L, false, "LOW", now.plusDays(1)),
+                todo(4L, false, "MEDIUM", null)));
+
+        TodoStats stats = cache.get(USER_ID);
+
+        assertEquals(new TodoStats(4, 1, 3, 1, Map.of("LOW", 1L, "MEDIUM", 1L, "HIGH", 2L)), stats);
+    }
+
+    @Test
+    void onTodoChanged_ShouldAdjustCountsWithoutReloading() {
+        LocalDateTime now = LocalDateTime.now();
+        when(todoRepository.findResponsesByUserId(USER_ID)).thenReturn(List.of(todo(1L, false, "HIGH", now.minusDays(1))));
+        cache.get(USER_ID);
+
+        cache.onTodoChanged(TodoChangedEvent.created(USER_ID, todo(2L, false, "LOW", null)));
+        TodoResponse completed = todo(1L, true, "MEDIUM", now.minusDays(1));
+        completed.setVersion(1L);
+        cache.onTodoChanged(TodoChangedEvent.updated(USER_ID, completed));
+        // An older version arriving late is ignored
+        cache.onTodoChanged(TodoChangedEvent.updated(USER_ID, todo(1L, false, "HIGH", now.minusDays(1))));
+        cache.onTodoChanged(TodoChangedEvent.created(USER_ID, todo(3L, false, "LOW", null)));
+        cache.onTodoChanged(TodoChangedEvent.deleted(USER_ID, 3L));
+        cache.onTodoChanged(TodoChangedEvent.created(2L, todo(4L, false, "LOW", null)));
+
+        assertEquals(new TodoStats(2, 1, 1, 0, Map.of("LOW", 1L, "MEDIUM", 1L, "HIGH", 0L)), cache.get(USER_ID));
+        verify(todoRepository, times(1)).findResponsesByUserId(USER_ID);
+    }
+
+    @Test
+    void get_ShouldCountTodosThatBecameOverdueSinceTheyWereLoaded() throws Exception {
+        LocalDateTime soon = LocalDateTime.now().plusNanos(50_000_000);
+        when(todoRepository.findResponsesByUserId(USER_ID)).thenReturn(List.of(
+                todo(1L, false, "MEDIUM", soon), todo(2L, false, "MEDIUM", soon)));
+        assertEquals(0, cache.get(USER_ID).getOverdue());
+
+        // Completing a todo before it is due keeps it from ever counting as overdue
+        TodoResponse completed = todo(2L, true, "MEDIUM", soon);
+        completed.setVersion(1L);
+        cache.onTodoChanged(TodoChangedEvent.updated(USER_ID, completed));
+        Thread.sleep(100);
+
+        assertEquals(1, cache.get(USER_ID).getOverdue());
+        cache.onTodoChanged(TodoChangedEvent.deleted(USER_ID, 1L));
+        assertEquals(0, cache.get(USER_ID).getOverdue());
+    }
+
+    @Test
+    void get_ShouldApplyChangesCommittedWhileBuilding() {
+        when(todoRepository.findResponsesByUserId(USER_ID)).thenAnswer(invocation -> {
+            // Commits after the load has read the database, before the counts are installed
+            cache.onTodoChanged(TodoChangedEvent.created(USER_ID, todo(2L, true, "LOW", null)));
+            return List.of(todo(1L, false, "MEDIUM", null));
+        });
+
+        assertEquals(new TodoStats(2, 1, 1, 0, Map.of("LOW", 1L, "MEDIUM", 1L, "HIGH", 0L)), cache.get(USER_ID));
+    }
+
+    @Test
+    void reconcile_ShouldRebuildCountsThatDriftedFromTheDatabase() {
+        when(todoRepository.findResponsesByUserId(USER_ID))
+                .thenReturn(List.of(todo(1L, false, "MEDIUM", null)))
+                .thenReturn(List.of(todo(1L, false, "MEDIUM", null), todo(2L, true, "HIGH", null)));
+        cache.get(USER_ID);
+        when(todoRepository.countByUserIds(anyCollection(), any()))
+                .thenReturn(List.of(new TodoCountRow(USER_ID, "MEDIUM", false, 1L, 0L)));
+
+        cache.reconcile();
+
+        assertEquals(0, meterRegistry.get("todo.stats.drift").counter().count());
+        verify(todoRepository, times(1)).findResponsesByUserId(USER_ID);
+
+        // A todo written behind the application's back
+        when(todoRepository.countByUserIds(anyCollection(), any())).thenReturn(List.of(
+                new TodoCountRow(USER_ID, "MEDIUM", false, 1L, 0L), new TodoCountRow(USER_ID, "HIGH", true, 1L, 0L)));
+
+        cache.reconcile();
+
+        assertEquals(1, meterRegistry.get("todo.stats.drift").counter().count());
+        assertEquals(2, cache.get(USER_ID).getTotal());
+    }
+
+    private static TodoResponse todo(Long id, boolean completed, String priority, LocalDateTime dueDate) {
+        LocalDateTime now = LocalDateTime.now();
+        return new TodoResponse(id, "Todo " + id, null, completed, priority, dueDate, now, now, 0L);
+    }
+}
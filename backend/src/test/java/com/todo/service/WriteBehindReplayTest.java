@@ -0,0 +1,92 @@
+package com.todo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todo.TodoApplication;
+import com.todo.dto.TodoRequest;
+import com.todo.dto.TodoResponse;
+import com.todo.event.TodoChangedEvent;
+import com.todo.model.User;
+import com.todo.repository.TodoRepository;
+import com.todo.repository.UserRepository;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Restarts the application on the same database and journal: a mutation acknowledged but not
+ * applied before a crash must be applied at startup, and applied ones must not be again.
+ */
+class WriteBehindReplayTest {
+
+    @Test
+    void startup_ShouldReplayJournaledMutationsAfterCheckpoint() throws Exception {
+        String run = UUID.randomUUID().toString();
+        Path journalPath = Path.of("./target/write-behind-replay/journal-" + run + ".log");
+        String[] args = {
+                "--spring.profiles.active=persistent",
+                "--todo.db.path=./target/write-behind-replay/tododb-" + run,
+                "--todo.write-behind.enabled=true",
+                "--todo.write-behind.journal-path=" + journalPath,
+                "--server.port=0"
+        };
+
+        Long userId;
+        TodoResponse applied;
+        ObjectMapper objectMapper;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TodoApplication.class).run(args)) {
+            User user = new User();
+            user.setUsername("replay" + System.nanoTime());
+            user.setEmail(user.getUsername() + "@test.com");
+            user.setPassword("hash");
+            userId = context.getBean(UserRepository.class).save(user).getId();
+
+            WriteBehindTodoStore store = context.getBean(WriteBehindTodoStore.class);
+            applied = store.create(userId, request("Applied before restart"));
+            store.awaitApplied(userId);
+            objectMapper = context.getBean(ObjectMapper.class);
+        }
+
+        // Acknowledged right before a crash: durable in the journal, never applied
+        TodoResponse pending = new TodoResponse(applied.getId() + 1, "Acknowledged before crash", null, false,
+                "LOW", null, applied.getCreatedAt(), applied.getUpdatedAt(), 0L);
+        try (AppendOnlyJournal<TodoChangedEvent> journal = new AppendOnlyJournal<>(journalPath, 1,
+                change -> encode(objectMapper, change), bytes -> null, records -> { },
+                Duration.ZERO, 1 << 20, Timer.builder("test.fsync").register(new SimpleMeterRegistry()))) {
+            assertEquals(2L, journal.append(TodoChangedEvent.created(userId, pending)).get(5, TimeUnit.SECONDS));
+        }
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TodoApplication.class).run(args)) {
+            assertEquals(2, context.getBean(TodoRepository.class).findResponsesByUserId(userId).size());
+            assertEquals("Acknowledged before crash", context.getBean(TodoRepository.class)
+                    .findResponseByIdAndUserId(pending.getId(), userId).orElseThrow().getTitle());
+            assertEquals(2L, context.getBean(JdbcTemplate.class).queryForObject(
+                    "SELECT applied_seq FROM journal_checkpoint WHERE name = 'todos'", Long.class));
+        }
+    }
+
+    private static TodoRequest request(String title) {
+        TodoRequest request = new TodoRequest();
+        request.setTitle(title);
+        return request;
+    }
+
+    private static byte[] encode(ObjectMapper objectMapper, TodoChangedEvent change) {
+        try {
+            return objectMapper.writeValueAsBytes(change);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
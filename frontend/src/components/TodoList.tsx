@@ -1,7 +1,7 @@
 import React, { useEffect, useState } from 'react';
 import { useNavigate } from 'react-router-dom';
 import { useAppDispatch, useAppSelector } from '../store/hooks';
-import { fetchTodos, createTodo, updateTodo, deleteTodo } from '../store/todoSlice';
+import { fetchTodos, fetchMoreTodos, createTodo, updateTodo, deleteTodo } from '../store/todoSlice';
 import { logout } from '../store/authSlice';
 import { TodoRequest } from '../types';
 import TodoItem from './TodoItem';
@@ -10,7 +10,7 @@ import TodoForm from './TodoForm';
 const TodoList: React.FC = () => {
   const dispatch = useAppDispatch();
   const navigate = useNavigate();
-  const { todos, loading, error } = useAppSelector((state) => state.todos);
+  const { todos, nextCursor, loading, error } = useAppSelector((state) => state.todos);
   const { user } = useAppSelector((state) => state.auth);
   const [showForm, setShowForm] = useState(false);
   const [editingTodo, setEditingTodo] = useState<number | null>(null);
@@ -110,6 +110,12 @@ const TodoList: React.FC = () => {
           ))
         )}
       </div>
+
+      {nextCursor && (
+        <button onClick={() => dispatch(fetchMoreTodos())} className="btn-secondary" disabled={loading}>
+          Load more
+        </button>
+      )}
     </div>
   );
 };
@@ -1,33 +1,38 @@
 import api from './api';
 import { AuthResponse, LoginRequest, RegisterRequest } from '../types';
 
+const storeSession = (data: AuthResponse) => {
+  if (data.token) {
+    localStorage.setItem('token', data.token);
+    localStorage.setItem('refreshToken', data.refreshToken);
+    localStorage.setItem('user', JSON.stringify({
+      username: data.username,
+      email: data.email,
+    }));
+  }
+};
+
 export const authService = {
   async register(data: RegisterRequest): Promise<AuthResponse> {
     const response = await api.post<AuthResponse>('/api/auth/register', data);
-    if (response.data.token) {
-      localStorage.setItem('token', response.data.token);
-      localStorage.setItem('user', JSON.stringify({
-        username: response.data.username,
-        email: response.data.email,
-      }));
-    }
+    storeSession(response.data);
     return response.data;
   },
 
   async login(data: LoginRequest): Promise<AuthResponse> {
     const response = await api.post<AuthResponse>('/api/auth/login', data);
-    if (response.data.token) {
-      localStorage.setItem('token', response.data.token);
-      localStorage.setItem('user', JSON.stringify({
-        username: response.data.username,
-        email: response.data.email,
-      }));
-    }
+    storeSession(response.data);
     return response.data;
   },
 
   logout(): void {
+    const refreshToken = localStorage.getItem('refreshToken');
+    if (refreshToken) {
+      // Best effort: the session ends locally whether or not the server hears about it
+      api.post('/api/auth/logout', { refreshToken }).catch(() => undefined);
+    }
     localStorage.removeItem('token');
+    localStorage.removeItem('refreshToken');
     localStorage.removeItem('user');
   },
 
@@ -1,10 +1,13 @@
 import api from './api';
-import { Todo, TodoRequest } from '../types';
+import { Todo, TodoPage, TodoRequest } from '../types';
 
 export const todoService = {
-  async getAllTodos(): Promise<Todo[]> {
-    const response = await api.get<Todo[]>('/api/todos');
-    return response.data;
+  // The list endpoint is keyset-paginated; X-Next-Cursor fetches the page after this one
+  async getTodoPage(cursor?: string): Promise<TodoPage> {
+    const response = await api.get<Todo[]>('/api/todos', {
+      params: cursor ? { cursor } : {},
+    });
+    return { todos: response.data, nextCursor: response.headers['x-next-cursor'] };
   },
 
   async getTodoById(id: number): Promise<Todo> {
@@ -25,9 +28,4 @@ export const todoService = {
   async deleteTodo(id: number): Promise<void> {
     await api.delete(`/api/todos/${id}`);
   },
-
-  async getTodosByStatus(completed: boolean): Promise<Todo[]> {
-    const response = await api.get<Todo[]>(`/api/todos?completed=${completed}`);
-    return response.data;
-  },
 };
@@ -1,9 +1,11 @@
 import { createSlice, createAsyncThunk, PayloadAction } from '@reduxjs/toolkit';
 import { todoService } from '../services/todoService';
-import { Todo, TodoRequest } from '../types';
+import { Todo, TodoPage, TodoRequest } from '../types';
 
 interface TodoState {
   todos: Todo[];
+  // Cursor of the next unloaded page, null once everything is loaded
+  nextCursor: string | null;
   selectedTodo: Todo | null;
   loading: boolean;
   error: string | null;
@@ -11,6 +13,7 @@ interface TodoState {
 
 const initialState: TodoState = {
   todos: [],
+  nextCursor: null,
   selectedTodo: null,
   loading: false,
   error: null,
@@ -20,7 +23,18 @@ export const fetchTodos = createAsyncThunk(
   'todos/fetchAll',
   async (_, { rejectWithValue }) => {
     try {
-      return await todoService.getAllTodos();
+      return await todoService.getTodoPage();
+    } catch (error: any) {
+      return rejectWithValue(error.response?.data?.message || 'Failed to fetch todos');
+    }
+  }
+);
+
+export const fetchMoreTodos = createAsyncThunk<TodoPage, void, { state: { todos: TodoState } }>(
+  'todos/fetchMore',
+  async (_, { getState, rejectWithValue }) => {
+    try {
+      return await todoService.getTodoPage(getState().todos.nextCursor ?? undefined);
     } catch (error: any) {
       return rejectWithValue(error.response?.data?.message || 'Failed to fetch todos');
     }
@@ -78,15 +92,33 @@ const todoSlice = createSlice({
       state.loading = true;
       state.error = null;
     });
-    builder.addCase(fetchTodos.fulfilled, (state, action: PayloadAction<Todo[]>) => {
+    builder.addCase(fetchTodos.fulfilled, (state, action: PayloadAction<TodoPage>) => {
       state.loading = false;
-      state.todos = action.payload;
+      state.todos = action.payload.todos;
+      state.nextCursor = action.payload.nextCursor ?? null;
     });
     builder.addCase(fetchTodos.rejected, (state, action) => {
       state.loading = false;
       state.error = action.payload as string;
     });
 
+    // Fetch the next page
+    builder.addCase(fetchMoreTodos.pending, (state) => {
+      state.loading = true;
+      state.error = null;
+    });
+    builder.addCase(fetchMoreTodos.fulfilled, (state, action: PayloadAction<TodoPage>) => {
+      state.loading = false;
+      // Todos created since the first page was loaded may be on this one too
+      const loaded = new Set(state.todos.map(todo => todo.id));
+      state.todos.push(...action.payload.todos.filter(todo => !loaded.has(todo.id)));
+      state.nextCursor = action.payload.nextCursor ?? null;
+    });
+    builder.addCase(fetchMoreTodos.rejected, (state, action) => {
+      state.loading = false;
+      state.error = action.payload as string;
+    });
+
     // Create todo
     builder.addCase(createTodo.pending, (state) => {
       state.loading = true;
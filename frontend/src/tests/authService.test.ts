@@ -29,11 +29,13 @@ describe('authService', () => {
 
   test('clears token and user on logout', () => {
     localStorage.setItem('token', 'test-token');
+    localStorage.setItem('refreshToken', 'test-refresh-token');
     localStorage.setItem('user', JSON.stringify({ username: 'testuser' }));
 
     authService.logout();
 
     expect(authService.getToken()).toBeNull();
+    expect(localStorage.getItem('refreshToken')).toBeNull();
     expect(authService.isAuthenticated()).toBe(false);
     expect(authService.getCurrentUser()).toBeNull();
   });
@@ -6,6 +6,8 @@ export interface User {
 export interface AuthResponse {
   token: string;
   type: string;
+  expiresIn: number;
+  refreshToken: string;
   username: string;
   email: string;
 }
@@ -30,6 +32,13 @@ export interface Todo {
   dueDate?: string;
   createdAt: string;
   updatedAt: string;
+  version?: number;
+}
+
+export interface TodoPage {
+  todos: Todo[];
+  // Pass back to get the next page; absent on the last one
+  nextCursor?: string;
 }
 
 export interface TodoRequest {
@@ -8,6 +8,9 @@ resource "aws_lb" "main" {
 
   enable_deletion_protection = false
   enable_http2               = true
+  # Must stay below server.tomcat.keep-alive-timeout (http-tuning profile), or the ALB may
+  # send a request on a connection the backend has just closed and answer it with a 502
+  idle_timeout               = 60
   enable_cross_zone_load_balancing = true
 
   tags = {
@@ -29,7 +32,7 @@ resource "aws_lb_target_group" "backend" {
     interval            = 30
     matcher             = "200"
     path                = "/actuator/health"
-    port                = "traffic-port"
+    port                = tostring(var.backend_management_port)
     protocol            = "HTTP"
     timeout             = 5
     unhealthy_threshold = 2
@@ -93,7 +96,7 @@ resource "aws_lb_listener_rule" "backend_api" {
 
   condition {
     path_pattern {
-      values = ["/api/*", "/actuator/*"]
+      values = ["/api/*"]
     }
   }
 }
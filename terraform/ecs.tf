@@ -71,6 +71,10 @@ resource "aws_ecs_task_definition" "backend" {
         {
           containerPort = var.backend_port
           protocol      = "tcp"
+        },
+        {
+          containerPort = var.backend_management_port
+          protocol      = "tcp"
         }
       ]
       environment = [
@@ -81,6 +85,10 @@ resource "aws_ecs_task_definition" "backend" {
         {
           name  = "JWT_SECRET"
           value = var.jwt_secret
+        },
+        {
+          name  = "MANAGEMENT_PORT"
+          value = tostring(var.backend_management_port)
         }
       ]
       logConfiguration = {
@@ -92,7 +100,7 @@ resource "aws_ecs_task_definition" "backend" {
         }
       }
       healthCheck = {
-        command     = ["CMD-SHELL", "curl -f http://localhost:8080/actuator/health || exit 1"]
+        command     = ["CMD-SHELL", "curl -f http://localhost:${var.backend_management_port}/actuator/health || exit 1"]
         interval    = 30
         timeout     = 5
         retries     = 3
@@ -45,6 +45,14 @@ resource "aws_security_group" "backend" {
     description     = "Allow traffic from ALB"
   }
 
+  ingress {
+    from_port       = var.backend_management_port
+    to_port         = var.backend_management_port
+    protocol        = "tcp"
+    security_groups = [aws_security_group.alb.id]
+    description     = "Allow health checks from ALB"
+  }
+
   egress {
     from_port   = 0
     to_port     = 0
@@ -46,6 +46,12 @@ variable "backend_port" {
   default     = 8080
 }
 
+variable "backend_management_port" {
+  description = "Backend actuator port (health checks, Prometheus); reachable from inside the VPC only"
+  type        = number
+  default     = 8081
+}
+
 variable "frontend_port" {
   description = "Frontend application port"
   type        = number